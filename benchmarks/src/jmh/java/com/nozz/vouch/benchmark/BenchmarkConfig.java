@@ -0,0 +1,29 @@
+package com.nozz.vouch.benchmark;
+
+import com.nozz.vouch.config.VouchConfigManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Loads a throwaway vouch.toml for a benchmark fork.
+ *
+ * VouchConfigManager is a process-wide singleton, so settings that differ per
+ * @Param only work because JMH runs every parameter combination in its own fork.
+ */
+public final class BenchmarkConfig {
+
+    private BenchmarkConfig() {
+    }
+
+    /**
+     * Write the given TOML to a temporary config directory and initialize the config manager from it.
+     */
+    public static VouchConfigManager initialize(String toml) throws IOException {
+        Path baseDir = Files.createTempDirectory("vouch-bench");
+        Path vouchDir = Files.createDirectories(baseDir.resolve("vouch"));
+        Files.writeString(vouchDir.resolve("vouch.toml"), toml);
+        return VouchConfigManager.initialize(baseDir);
+    }
+}
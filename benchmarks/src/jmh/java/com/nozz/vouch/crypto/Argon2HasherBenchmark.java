@@ -0,0 +1,93 @@
+package com.nozz.vouch.crypto;
+
+import com.nozz.vouch.benchmark.BenchmarkConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Argon2Hasher.hash/verify across cost parameters, engines and thread counts.
+ *
+ * Thread counts are the nested subclasses; the memory budget is sized so
+ * that every thread can hash at once, as with a matching hashing.threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public abstract class Argon2HasherBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    /** Same form as {@link Argon2Params#toString()} */
+    @Param({"m=8192,t=2,p=1", "m=15360,t=2,p=1", "m=15360,t=2,p=4", "m=65536,t=3,p=1"})
+    public String params;
+
+    @Param({"scalar", "vector"})
+    public String engine;
+
+    private String storedHash;
+
+    @Setup(Level.Trial)
+    public void setup(BenchmarkParams benchmarkParams) throws IOException {
+        int memory = 0;
+        int iterations = 0;
+        int parallelism = 0;
+        for (String param : params.split(",")) {
+            int value = Integer.parseInt(param.substring(2));
+            switch (param.charAt(0)) {
+                case 'm' -> memory = value;
+                case 't' -> iterations = value;
+                case 'p' -> parallelism = value;
+                default -> throw new IllegalArgumentException("Unknown Argon2 parameter: " + param);
+            }
+        }
+
+        BenchmarkConfig.initialize("""
+                [crypto.argon2]
+                memory_cost = %d
+                iterations = %d
+                parallelism = %d
+                memory_budget = %d
+                engine = "%s"
+                """.formatted(memory, iterations, parallelism, memory * benchmarkParams.getThreads(), engine));
+
+        storedHash = Argon2Hasher.hash(PASSWORD);
+        if (!Argon2Hasher.verify(PASSWORD, storedHash)) {
+            throw new IllegalStateException("Hash does not verify: " + storedHash);
+        }
+    }
+
+    @Benchmark
+    public String hash() {
+        return Argon2Hasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return Argon2Hasher.verify(PASSWORD, storedHash);
+    }
+
+    @Threads(1)
+    public static class SingleThread extends Argon2HasherBenchmark {
+    }
+
+    @Threads(4)
+    public static class FourThreads extends Argon2HasherBenchmark {
+    }
+}
@@ -0,0 +1,92 @@
+package com.nozz.vouch.crypto;
+
+import com.nozz.vouch.benchmark.BenchmarkConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TOTPEngine.verifyCode across window sizes.
+ *
+ * A valid code matches at the current step; a wrong code is the worst
+ * case, trying all 2w+1 steps. The *Decoded variants reuse a TOTPKey the
+ * way a player's session does, and matchCounter checks the same 2w+1
+ * counters through the batch API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TOTPEngineBenchmark {
+
+    @Param({"1", "2", "5"})
+    public int windowSize;
+
+    private String secret;
+    private TOTPKey key;
+    private long[] counters;
+    private String validCode;
+    private String wrongCode;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        BenchmarkConfig.initialize("""
+                [totp]
+                window_size = %d
+                """.formatted(windowSize));
+        secret = TOTPEngine.generateSecret();
+        key = TOTPEngine.decodeKey(secret);
+        counters = new long[2 * windowSize + 1];
+    }
+
+    @Setup(Level.Iteration)
+    public void refreshCodes() {
+        // Regenerated each iteration so the valid code stays inside the window
+        validCode = TOTPEngine.generateCode(secret);
+        wrongCode = String.format("%06d", (Integer.parseInt(validCode) + 500_000) % 1_000_000);
+
+        long current = TOTPEngine.currentCounter();
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = current - windowSize + i;
+        }
+    }
+
+    @Benchmark
+    public boolean verifyValid() {
+        return TOTPEngine.verifyCode(secret, validCode);
+    }
+
+    @Benchmark
+    public boolean verifyWrong() {
+        return TOTPEngine.verifyCode(secret, wrongCode);
+    }
+
+    @Benchmark
+    public boolean verifyValidDecoded() {
+        return TOTPEngine.verifyCode(key, validCode);
+    }
+
+    @Benchmark
+    public boolean verifyWrongDecoded() {
+        return TOTPEngine.verifyCode(key, wrongCode);
+    }
+
+    @Benchmark
+    public int matchCounterWrong() {
+        return TOTPEngine.matchCounter(key, wrongCode, counters);
+    }
+}
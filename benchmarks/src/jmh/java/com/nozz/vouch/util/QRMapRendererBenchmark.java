@@ -0,0 +1,49 @@
+package com.nozz.vouch.util;
+
+import com.google.zxing.common.BitMatrix;
+import com.nozz.vouch.crypto.TOTPEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QR encoding and BitMatrix-to-map-colour conversion for the 2FA setup map.
+ *
+ * Lives in the util package to reach the package-private steps of QRMapRenderer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QRMapRendererBenchmark {
+
+    private String otpAuthUri;
+    private BitMatrix matrix;
+
+    @Setup
+    public void setup() {
+        otpAuthUri = TOTPEngine.generateOtpAuthUri(TOTPEngine.generateSecret(), "BenchmarkPlayer", "Vouch");
+        matrix = QRMapRenderer.generateQRCode(otpAuthUri);
+    }
+
+    @Benchmark
+    public byte[] convertToMapColors() {
+        return QRMapRenderer.convertToMapColors(matrix);
+    }
+
+    @Benchmark
+    public BitMatrix generateQRCode() {
+        return QRMapRenderer.generateQRCode(otpAuthUri);
+    }
+}
@@ -0,0 +1,53 @@
+package com.nozz.vouch.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session token generation and SHA-256 hashing, done on every login and session check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionTokenGeneratorBenchmark {
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        token = SessionTokenGenerator.generateToken();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return SessionTokenGenerator.generateToken();
+    }
+
+    @Benchmark
+    public String hashToken() {
+        return SessionTokenGenerator.hashToken(token);
+    }
+
+    /**
+     * Contention on the shared SecureRandom when many players join at once
+     */
+    @Benchmark
+    @Threads(4)
+    public String generateTokenContended() {
+        return SessionTokenGenerator.generateToken();
+    }
+}
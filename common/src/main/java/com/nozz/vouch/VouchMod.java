@@ -1,13 +1,23 @@
 package com.nozz.vouch;
 
 import com.nozz.vouch.auth.AuthManager;
+import com.nozz.vouch.auth.AuthPrefetcher;
+import com.nozz.vouch.auth.JailSystem;
 import com.nozz.vouch.auth.PreAuthManager;
 import com.nozz.vouch.command.TwoFactorCommands;
 import com.nozz.vouch.command.VouchCommands;
 import com.nozz.vouch.config.VouchConfigManager;
+import com.nozz.vouch.crypto.Argon2Calibrator;
+import com.nozz.vouch.crypto.HashingScheduler;
+import com.nozz.vouch.crypto.remote.RemoteHashClient;
 import com.nozz.vouch.db.ConnectionFactory;
+import com.nozz.vouch.db.DatabaseExecutor;
 import com.nozz.vouch.db.DatabaseManager;
+import com.nozz.vouch.db.JoinSnapshot;
+import com.nozz.vouch.db.SessionIndex;
+import com.nozz.vouch.db.WriteBehindQueue;
 import com.nozz.vouch.util.LangManager;
+import com.nozz.vouch.util.MainThreadQueue;
 import com.nozz.vouch.util.PermissionHelper;
 import com.nozz.vouch.util.UXManager;
 import dev.architectury.event.events.common.CommandRegistrationEvent;
@@ -21,7 +31,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -43,8 +53,6 @@ public final class VouchMod {
 
     private static VouchMod instance;
 
-    private final ExecutorService asyncExecutor;
-
     private final ScheduledExecutorService scheduler;
 
     private MinecraftServer server;
@@ -53,12 +61,6 @@ public final class VouchMod {
 
     private VouchMod() {
 
-        this.asyncExecutor = Executors.newFixedThreadPool(4, runnable -> {
-            Thread thread = new Thread(runnable, "Vouch-Async");
-            thread.setDaemon(true);
-            return thread;
-        });
-
         this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
             Thread thread = new Thread(runnable, "Vouch-Scheduler");
             thread.setDaemon(true);
@@ -109,12 +111,20 @@ public final class VouchMod {
 
         LifecycleEvent.SERVER_STARTING.register(server -> {
             this.server = server;
+            if (VouchConfigManager.getInstance().isCalibrationOnStartup()) {
+                calibrateArgon2();
+            }
+            RemoteHashClient.getInstance().start();
+            HashingScheduler.getInstance().start();
             LOGGER.info("Server starting, initializing database...");
 
             try {
                 ConnectionFactory.getInstance().initialize(server.getRunDirectory());
+                DatabaseExecutor.getInstance().start();
+                WriteBehindQueue.getInstance().start();
 
                 DatabaseManager.getInstance().initializeSchema();
+                loadSessionIndex();
 
                 startSessionCleanupScheduler();
 
@@ -138,7 +148,6 @@ public final class VouchMod {
         LOGGER.debug("Registering Architectury events...");
 
         AuthManager authManager = AuthManager.getInstance();
-        DatabaseManager dbManager = DatabaseManager.getInstance();
 
         PlayerEvent.PLAYER_JOIN.register(player -> {
             ServerPlayerEntity serverPlayer = (ServerPlayerEntity) player;
@@ -152,24 +161,31 @@ public final class VouchMod {
             }
 
             String ip = getPlayerIP(serverPlayer);
-            authManager.hasValidSession(serverPlayer.getUuid(), ip).thenAccept(hasValidSession -> {
-                runOnMainThread(() -> {
-                    if (serverPlayer.isDisconnected()) {
-                        return;
-                    }
+            if (authManager.hasIndexedSession(serverPlayer.getUuid(), ip)) {
+                AuthPrefetcher.getInstance().discard(serverPlayer.getUuid());
+                restoreSession(serverPlayer);
+                return;
+            }
 
-                    if (hasValidSession) {
-                        authManager.authenticateFromSession(serverPlayer);
-                        UXManager.getInstance().onSessionRestored(serverPlayer);
-                        LOGGER.info("Player {} authenticated via persistent session", serverPlayer.getName().getString());
-                    } else {
-                        dbManager.isRegistered(serverPlayer.getUuid()).thenAccept(isRegistered -> {
-                            runOnMainThread(() -> {
-                                if (!serverPlayer.isDisconnected()) {
-                                    authManager.addPendingPlayer(serverPlayer, isRegistered);
-                                }
-                            });
-                        });
+            // Usually started during the login phase, so this is already complete
+            CompletableFuture<JoinSnapshot> snapshotFuture = AuthPrefetcher.getInstance()
+                    .consume(serverPlayer.getUuid(), ip)
+                    .exceptionally(error -> {
+                        LOGGER.warn("Join lookup failed for {}, requiring login", serverPlayer.getName().getString(), error);
+                        return JoinSnapshot.UNREGISTERED;
+                    });
+
+            if (snapshotFuture.isDone()) {
+                onJoinSnapshot(serverPlayer, snapshotFuture.join());
+                return;
+            }
+
+            // Hold the player in place until the lookup decides between session restore and login
+            JailSystem.getInstance().jail(serverPlayer);
+            snapshotFuture.thenAccept(snapshot -> {
+                runOnMainThread(() -> {
+                    if (!serverPlayer.isDisconnected()) {
+                        onJoinSnapshot(serverPlayer, snapshot);
                     }
                 });
             });
@@ -207,16 +223,27 @@ public final class VouchMod {
             return dev.architectury.event.EventResult.pass();
         });
 
-        TickEvent.PLAYER_POST.register(player -> {
-            if (!(player instanceof ServerPlayerEntity serverPlayer)) return;
-            if (authManager.isPendingAuth(serverPlayer)) {
-                PreAuthManager.getInstance().enforcePositionFreeze(serverPlayer);
-            }
+        TickEvent.SERVER_POST.register(server -> {
+            MainThreadQueue.getInstance().drain();
+            JailSystem.getInstance().tick();
+            PreAuthManager.getInstance().tick();
         });
 
         LOGGER.debug("Events registered successfully");
     }
 
+    /**
+     * Run the opt-in Argon2 calibration before any hashing starts.
+     * Blocks server startup for the duration; a failure keeps the configured parameters.
+     */
+    private void calibrateArgon2() {
+        try {
+            Argon2Calibrator.getInstance().calibrateAndApply();
+        } catch (Exception e) {
+            LOGGER.error("Argon2 calibration failed, keeping configured parameters", e);
+        }
+    }
+
     /**
      * Start the periodic session cleanup scheduler.
      * Runs at the interval specified in config (session.cleanup_interval).
@@ -241,6 +268,42 @@ public final class VouchMod {
         LOGGER.info("Session cleanup scheduler started (interval: {} minutes)", intervalMinutes);
     }
 
+    /**
+     * Restore a persistent session or place the player in pre-auth jail
+     */
+    private void onJoinSnapshot(ServerPlayerEntity player, JoinSnapshot snapshot) {
+        AuthManager authManager = AuthManager.getInstance();
+
+        if (authManager.hasValidSession(snapshot)) {
+            restoreSession(player);
+        } else {
+            authManager.addPendingPlayer(player, snapshot.registered());
+        }
+    }
+
+    private void restoreSession(ServerPlayerEntity player) {
+        AuthManager.getInstance().authenticateFromSession(player);
+        UXManager.getInstance().onSessionRestored(player);
+        LOGGER.info("Player {} authenticated via persistent session", player.getName().getString());
+    }
+
+    /**
+     * Load persistent sessions into memory so joins can be restored without a query
+     * (session.memory_index). On failure, session checks fall back to the database.
+     */
+    private void loadSessionIndex() {
+        VouchConfigManager config = VouchConfigManager.getInstance();
+        if (!config.isSessionPersistenceEnabled() || !config.isSessionMemoryIndexEnabled()) {
+            return;
+        }
+
+        try {
+            DatabaseManager.getInstance().loadSessionIndex();
+        } catch (Exception e) {
+            LOGGER.warn("Failed to load session index, session checks will query the database", e);
+        }
+    }
+
     /**
      * Get player's IP address from their network connection
      */
@@ -265,18 +328,16 @@ public final class VouchMod {
     }
 
     /**
-     * Get the async executor for crypto operations
-     */
-    public ExecutorService getAsyncExecutor() {
-        return asyncExecutor;
-    }
-
-    /**
-     * Run a task on the main server thread
+     * Run a task on the main server thread.
+     * From other threads the task is queued and runs within the per-tick budget (see {@link MainThreadQueue}).
      */
     public void runOnMainThread(Runnable task) {
         if (server != null) {
-            server.execute(task);
+            if (server.isOnThread()) {
+                task.run();
+            } else {
+                MainThreadQueue.getInstance().submit(task);
+            }
         } else {
             // Fallback: run directly (should not happen in normal operation)
             LOGGER.warn("Server not available, running task directly");
@@ -297,21 +358,19 @@ public final class VouchMod {
     public void shutdown() {
         LOGGER.info("Shutting down {}...", MOD_NAME);
         AuthManager.getInstance().shutdown();
+        AuthPrefetcher.getInstance().clear();
+        SessionIndex.getInstance().clear();
 
+        // Pending writes must reach the database before the pool closes
+        WriteBehindQueue.getInstance().shutdown(5, TimeUnit.SECONDS);
+        DatabaseExecutor.getInstance().shutdown(5, TimeUnit.SECONDS);
         ConnectionFactory.getInstance().close();
         scheduler.shutdownNow();
-        asyncExecutor.shutdown();
-        try {
-            if (!asyncExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                LOGGER.warn("Async executor did not terminate in time, forcing shutdown...");
-                asyncExecutor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            asyncExecutor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        HashingScheduler.getInstance().shutdown(5, TimeUnit.SECONDS);
+        RemoteHashClient.getInstance().shutdown();
 
         server = null;
+        MainThreadQueue.getInstance().clear();
         LOGGER.info("{} shutdown complete", MOD_NAME);
     }
 
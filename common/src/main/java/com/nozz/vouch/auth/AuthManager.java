@@ -1,10 +1,14 @@
 package com.nozz.vouch.auth;
 
+import com.nozz.vouch.VouchMod;
 import com.nozz.vouch.config.VouchConfigManager;
 import com.nozz.vouch.db.DatabaseManager;
+import com.nozz.vouch.db.JoinSnapshot;
+import com.nozz.vouch.db.SessionIndex;
 import com.nozz.vouch.util.QRMapRenderer;
 import com.nozz.vouch.util.SessionTokenGenerator;
 import com.nozz.vouch.util.UXManager;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,10 +23,13 @@ import java.util.concurrent.ConcurrentHashMap;
  * Manages player authentication state and sessions.
  * 
  * Tracks which players are authenticated and handles the pre-auth "jail" state.
+ * Whenever a player's session becomes active or goes away, the flag on the
+ * player entity ({@link VouchPlayerState}) is updated too, so per-tick checks
+ * read the entity instead of the session maps.
  */
 public final class AuthManager {
     private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/AuthManager");
-    private static AuthManager instance;
+    private static final AuthManager INSTANCE = new AuthManager();
     private final Map<UUID, PlayerSession> pendingSessions = new ConcurrentHashMap<>();
     private final Map<UUID, PlayerSession> activeSessions = new ConcurrentHashMap<>();
 
@@ -30,17 +37,14 @@ public final class AuthManager {
     }
 
     public static AuthManager getInstance() {
-        if (instance == null) {
-            instance = new AuthManager();
-        }
-        return instance;
+        return INSTANCE;
     }
 
     /**
-     * Check if a player is authenticated
+     * Check if a player is authenticated (a field read on the entity)
      */
     public boolean isAuthenticated(ServerPlayerEntity player) {
-        return isAuthenticated(player.getUuid());
+        return VouchPlayerState.of(player).vouch$isAuthenticated();
     }
 
     public boolean isAuthenticated(UUID uuid) {
@@ -65,6 +69,7 @@ public final class AuthManager {
     public void addPendingPlayer(ServerPlayerEntity player, boolean isRegistered) {
         UUID uuid = player.getUuid();
         activeSessions.remove(uuid);
+        VouchPlayerState.of(player).vouch$setAuthenticated(false);
 
         String ip = getPlayerIP(player);
         PlayerSession session = new PlayerSession(uuid, player.getName().getString(), ip);
@@ -95,6 +100,7 @@ public final class AuthManager {
         if (session != null) {
             session.markAuthenticated();
             activeSessions.put(uuid, session);
+            VouchPlayerState.of(player).vouch$setAuthenticated(true);
 
             PreAuthManager.getInstance().endPreAuth(player);
             if (VouchConfigManager.getInstance().isSessionPersistenceEnabled()) {
@@ -116,6 +122,8 @@ public final class AuthManager {
         PlayerSession session = new PlayerSession(uuid, player.getName().getString(), ip);
         session.markAuthenticated();
         activeSessions.put(uuid, session);
+        VouchPlayerState.of(player).vouch$setAuthenticated(true);
+        JailSystem.getInstance().release(uuid);
 
         LOGGER.info("Player {} authenticated via persistent session", player.getName().getString());
     }
@@ -177,6 +185,8 @@ public final class AuthManager {
         
         pendingSessions.remove(uuid);
         activeSessions.remove(uuid);
+        VouchPlayerState.of(player).vouch$setAuthenticated(false);
+        CredentialGate.getInstance().cancel(uuid);
         
         PreAuthManager.getInstance().onPlayerDisconnect(uuid);
         QRMapRenderer.onPlayerDisconnect(uuid);
@@ -186,11 +196,21 @@ public final class AuthManager {
     /**
      * Remove a player from all tracking by UUID only.
      * Use this when the player object is not available.
-     * Note: QR map cleanup cannot be performed without the player object.
+     * If the player is still online they are looked up, so their
+     * authenticated flag is cleared as well; otherwise QR map cleanup
+     * cannot be performed without the player object.
      */
     public void removePlayer(UUID uuid) {
+        MinecraftServer server = VouchMod.getInstance().getServer();
+        ServerPlayerEntity online = server != null ? server.getPlayerManager().getPlayer(uuid) : null;
+        if (online != null) {
+            removePlayer(online);
+            return;
+        }
+
         pendingSessions.remove(uuid);
         activeSessions.remove(uuid);
+        CredentialGate.getInstance().cancel(uuid);
 
         PreAuthManager.getInstance().onPlayerDisconnect(uuid);
         QRMapRenderer.onPlayerDisconnect(uuid);
@@ -237,6 +257,35 @@ public final class AuthManager {
         return DatabaseManager.getInstance().validateSession(uuid, ip);
     }
 
+    /**
+     * Check the in-memory session index for a valid persistent session.
+     * 
+     * Returns false when the index is not loaded, in which case callers
+     * should fall back to a database lookup.
+     */
+    public boolean hasIndexedSession(UUID uuid, String ip) {
+        VouchConfigManager config = VouchConfigManager.getInstance();
+        SessionIndex index = SessionIndex.getInstance();
+        if (!config.isSessionPersistenceEnabled() || !index.isLoaded()) {
+            return false;
+        }
+        return config.isSessionBindToIp() ? index.hasValidSession(uuid, ip) : index.hasAnyValidSession(uuid);
+    }
+
+    /**
+     * Check a join snapshot for a valid persistent session.
+     * 
+     * Applies the same session.enabled and session.bind_to_ip rules as
+     * {@link #hasValidSession(UUID, String)} without another query.
+     */
+    public boolean hasValidSession(JoinSnapshot snapshot) {
+        VouchConfigManager config = VouchConfigManager.getInstance();
+        if (!config.isSessionPersistenceEnabled()) {
+            return false;
+        }
+        return snapshot.hasValidSession(config.isSessionBindToIp());
+    }
+
     /**
      * Logout a player - removes in-memory session AND persistent session.
      * Use this for explicit logout (e.g., /logout command).
@@ -249,6 +298,7 @@ public final class AuthManager {
         
         pendingSessions.remove(uuid);
         activeSessions.remove(uuid);
+        VouchPlayerState.of(player).vouch$setAuthenticated(false);
 
         return DatabaseManager.getInstance().deleteAllSessions(uuid)
                 .thenAccept(deleted -> {
@@ -280,6 +330,7 @@ public final class AuthManager {
     public void shutdown() {
         pendingSessions.clear();
         activeSessions.clear();
+        CredentialGate.getInstance().clear();
         
         PreAuthManager.getInstance().shutdown();
         UXManager.getInstance().shutdown();
@@ -0,0 +1,98 @@
+package com.nozz.vouch.auth;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.nozz.vouch.db.DatabaseExecutor;
+import com.nozz.vouch.db.DatabaseManager;
+import com.nozz.vouch.db.JoinSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.SocketAddress;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the join lookup while the connection is still in the login phase.
+ * 
+ * By the time PLAYER_JOIN fires the snapshot is usually complete, so a
+ * restored session is applied immediately and the player never enters
+ * pre-auth state. Entries that are never consumed (failed logins,
+ * disconnects during configuration) expire on their own.
+ */
+public final class AuthPrefetcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/Prefetch");
+    private static AuthPrefetcher instance;
+
+    private final Cache<UUID, Prefetch> prefetched;
+
+    private record Prefetch(String ip, CompletableFuture<JoinSnapshot> snapshot) {}
+
+    private AuthPrefetcher() {
+        this.prefetched = CacheBuilder.newBuilder()
+                .expireAfterWrite(30, TimeUnit.SECONDS)
+                .maximumSize(1024)
+                .build();
+    }
+
+    public static synchronized AuthPrefetcher getInstance() {
+        if (instance == null) {
+            instance = new AuthPrefetcher();
+        }
+        return instance;
+    }
+
+    /**
+     * Begin loading the join snapshot for a connection whose profile is known
+     */
+    public void prefetch(UUID uuid, SocketAddress address) {
+        if (!DatabaseExecutor.getInstance().isRunning()) {
+            return;
+        }
+
+        String ip = formatAddress(address);
+        if (AuthManager.getInstance().hasIndexedSession(uuid, ip)) {
+            // Session restore needs no query
+            return;
+        }
+
+        prefetched.put(uuid, new Prefetch(ip, DatabaseManager.getInstance().getJoinSnapshot(uuid, ip)));
+        LOGGER.debug("Prefetching join state for {} from {}", uuid, ip);
+    }
+
+    /**
+     * Take the prefetched snapshot for a joining player, or start a fresh
+     * lookup if none exists or it was made for a different IP.
+     */
+    public CompletableFuture<JoinSnapshot> consume(UUID uuid, String ip) {
+        Prefetch prefetch = prefetched.asMap().remove(uuid);
+        if (prefetch != null && prefetch.ip().equals(ip)) {
+            return prefetch.snapshot();
+        }
+        return DatabaseManager.getInstance().getJoinSnapshot(uuid, ip);
+    }
+
+    public void discard(UUID uuid) {
+        prefetched.invalidate(uuid);
+    }
+
+    public void clear() {
+        prefetched.invalidateAll();
+    }
+
+    private static String formatAddress(SocketAddress address) {
+        if (address == null) {
+            return "unknown";
+        }
+        String ip = address.toString();
+        if (ip.startsWith("/")) {
+            ip = ip.substring(1);
+        }
+        int colonIndex = ip.lastIndexOf(':');
+        if (colonIndex > 0) {
+            ip = ip.substring(0, colonIndex);
+        }
+        return ip;
+    }
+}
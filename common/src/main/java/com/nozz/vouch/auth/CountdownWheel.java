@@ -0,0 +1,175 @@
+package com.nozz.vouch.auth;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hashed timing wheel for pre-auth countdowns, advanced by the server tick.
+ *
+ * The wheel has one slot per tick of a second. A player is hashed into the
+ * slot of the tick they joined on and fires every time the cursor passes it,
+ * i.e. once per second, with their remaining seconds counting down towards
+ * the deadline. Each tick visits only the players in the current slot.
+ *
+ * Entries live in parallel arrays linked into per-slot lists by index, and
+ * freed entries are reused, so ticking allocates nothing.
+ *
+ * Main thread only.
+ */
+final class CountdownWheel {
+    private static final int SLOTS = 20;  // Ticks per second
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    /**
+     * Receives one call per player per second.
+     */
+    interface Listener {
+        void onSecond(ServerPlayerEntity player, int remainingSeconds, int totalSeconds);
+    }
+
+    private final Listener listener;
+    private final int[] heads = new int[SLOTS];
+    private final Map<UUID, Integer> entries = new HashMap<>();
+
+    private ServerPlayerEntity[] players = new ServerPlayerEntity[INITIAL_CAPACITY];
+    private int[] remaining = new int[INITIAL_CAPACITY];
+    private int[] totals = new int[INITIAL_CAPACITY];
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] prev = new int[INITIAL_CAPACITY];
+    private int freeHead = NONE;
+    private int used;
+    private int cursor;
+    private int iterNext = NONE;
+
+    CountdownWheel(Listener listener) {
+        this.listener = listener;
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Start (or restart) a player's countdown. The first call to the
+     * listener comes one second from now.
+     */
+    void add(ServerPlayerEntity player, int totalSeconds) {
+        remove(player.getUuid());
+
+        int index = allocate();
+        players[index] = player;
+        remaining[index] = totalSeconds;
+        totals[index] = totalSeconds;
+        link(index, cursor);
+        entries.put(player.getUuid(), index);
+    }
+
+    /**
+     * @return true if the player had a countdown
+     */
+    boolean remove(UUID uuid) {
+        Integer index = entries.remove(uuid);
+        if (index == null) {
+            return false;
+        }
+        unlink(index);
+        players[index] = null;
+        next[index] = freeHead;
+        freeHead = index;
+        return true;
+    }
+
+    /**
+     * Point a player's entry at the entity that replaced it on respawn.
+     */
+    void replacePlayer(ServerPlayerEntity player) {
+        Integer index = entries.get(player.getUuid());
+        if (index != null) {
+            players[index] = player;
+        }
+    }
+
+    boolean contains(UUID uuid) {
+        return entries.containsKey(uuid);
+    }
+
+    int getRemainingSeconds(UUID uuid) {
+        Integer index = entries.get(uuid);
+        return index != null ? remaining[index] : 0;
+    }
+
+    /**
+     * Advance one tick and fire the players in the slot the cursor reaches.
+     */
+    void tick() {
+        cursor = (cursor + 1) % SLOTS;
+
+        int index = heads[cursor];
+        while (index != NONE) {
+            // The listener may remove entries (timeout kick, disconnect); remove() advances iterNext past them
+            iterNext = next[index];
+            remaining[index]--;
+            listener.onSecond(players[index], remaining[index], totals[index]);
+            index = iterNext;
+        }
+        iterNext = NONE;
+    }
+
+    void clear() {
+        entries.clear();
+        Arrays.fill(heads, NONE);
+        Arrays.fill(players, null);
+        freeHead = NONE;
+        used = 0;
+        iterNext = NONE;
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int index = freeHead;
+            freeHead = next[index];
+            return index;
+        }
+        if (used == players.length) {
+            grow();
+        }
+        return used++;
+    }
+
+    private void link(int index, int slot) {
+        slots[index] = slot;
+        prev[index] = NONE;
+        next[index] = heads[slot];
+        if (heads[slot] != NONE) {
+            prev[heads[slot]] = index;
+        }
+        heads[slot] = index;
+    }
+
+    private void unlink(int index) {
+        if (iterNext == index) {
+            iterNext = next[index];
+        }
+        if (prev[index] != NONE) {
+            next[prev[index]] = next[index];
+        } else {
+            heads[slots[index]] = next[index];
+        }
+        if (next[index] != NONE) {
+            prev[next[index]] = prev[index];
+        }
+    }
+
+    private void grow() {
+        int capacity = players.length * 2;
+        players = Arrays.copyOf(players, capacity);
+        remaining = Arrays.copyOf(remaining, capacity);
+        totals = Arrays.copyOf(totals, capacity);
+        slots = Arrays.copyOf(slots, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+    }
+}
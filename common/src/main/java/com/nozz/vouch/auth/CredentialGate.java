@@ -0,0 +1,113 @@
+package com.nozz.vouch.auth;
+
+import com.nozz.vouch.VouchMod;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Allows at most one credential operation (login, registration, 2FA change)
+ * in flight per player.
+ *
+ * Each operation costs a database query and often an Argon2 hash, so a
+ * player repeating /login while the first attempt is still running only
+ * multiplies the work. Commands take a {@link Ticket} before starting and
+ * refuse to start while another one is held. When the player disconnects,
+ * {@link #cancel(UUID)} cancels the stage the operation is waiting on; the
+ * database and hashing executors skip cancelled jobs that have not started.
+ */
+public final class CredentialGate {
+    private static CredentialGate instance;
+
+    private final Map<UUID, Ticket> inFlight = new ConcurrentHashMap<>();
+
+    private CredentialGate() {
+    }
+
+    public static synchronized CredentialGate getInstance() {
+        if (instance == null) {
+            instance = new CredentialGate();
+        }
+        return instance;
+    }
+
+    /**
+     * Start a credential operation for a player.
+     *
+     * @return the ticket to track the operation with, or null if one is already in flight
+     */
+    public Ticket tryAcquire(UUID uuid) {
+        Ticket ticket = new Ticket(uuid);
+        return inFlight.putIfAbsent(uuid, ticket) == null ? ticket : null;
+    }
+
+    /**
+     * Cancel a player's in-flight operation (on disconnect).
+     */
+    public void cancel(UUID uuid) {
+        Ticket ticket = inFlight.remove(uuid);
+        if (ticket != null) {
+            ticket.cancel();
+        }
+    }
+
+    public void clear() {
+        inFlight.clear();
+    }
+
+    /**
+     * One in-flight credential operation.
+     */
+    public final class Ticket {
+        private final UUID uuid;
+        private volatile CompletableFuture<?> stage;
+        private volatile boolean cancelled;
+
+        private Ticket(UUID uuid) {
+            this.uuid = uuid;
+        }
+
+        /**
+         * Register the async stage the operation is waiting on, so a
+         * disconnect can cancel it.
+         *
+         * Pass the future returned by the executor (not a derived one), or
+         * the queued job is not skipped.
+         */
+        public <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+            stage = future;
+            if (cancelled) {
+                future.cancel(false);
+            }
+            return future;
+        }
+
+        /**
+         * Release the ticket once the operation's chain completes.
+         *
+         * The release runs on the main thread, after the reply the chain has
+         * scheduled there, so the next command sees the updated auth state.
+         */
+        public void releaseWhenDone(CompletableFuture<?> chain) {
+            chain.whenComplete((result, error) -> VouchMod.getInstance().runOnMainThread(this::release));
+        }
+
+        public void release() {
+            inFlight.remove(uuid, this);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            CompletableFuture<?> current = stage;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+}
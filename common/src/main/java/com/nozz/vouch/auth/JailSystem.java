@@ -0,0 +1,247 @@
+package com.nozz.vouch.auth;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import net.minecraft.network.packet.c2s.play.PlayerMoveC2SPacket;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Holds pending players in place until they authenticate.
+ *
+ * Jailed players live in dense parallel arrays, and {@link #tick()} walks
+ * only those slots once per server tick, so authenticated players cost
+ * nothing. Movement packets from jailed players are dropped before vanilla
+ * applies them ({@link #onMovePacket}); a corrective teleport is sent only
+ * when the client reports a position further than {@link #TOLERANCE_SQ}
+ * from the anchor. With ui.effects.freeze_camera the view is held as well.
+ *
+ * Main thread only.
+ */
+public final class JailSystem {
+    private static final JailSystem INSTANCE = new JailSystem();
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double TOLERANCE_SQ = 0.1;  // Allow tiny movements
+    private static final float ROTATION_TOLERANCE = 1.0f;  // degrees
+
+    private ServerPlayerEntity[] players = new ServerPlayerEntity[INITIAL_CAPACITY];
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private double[] zs = new double[INITIAL_CAPACITY];
+    private float[] yaws = new float[INITIAL_CAPACITY];
+    private float[] pitches = new float[INITIAL_CAPACITY];
+    private boolean[] anchored = new boolean[INITIAL_CAPACITY];
+    private int size;
+
+    private JailSystem() {
+    }
+
+    public static JailSystem getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Hold a player at their current position. Does nothing if
+     * ui.effects.freeze_position is off or the player is already jailed.
+     */
+    public void jail(ServerPlayerEntity player) {
+        if (!VouchConfigManager.getInstance().freezePosition() || slotOf(player) >= 0) {
+            return;
+        }
+
+        if (size == players.length) {
+            grow();
+        }
+        players[size] = player;
+        VouchPlayerState.of(player).vouch$setJailSlot(size);
+        anchor(size, player);
+        size++;
+    }
+
+    /**
+     * Let a player move freely again.
+     */
+    public void release(UUID uuid) {
+        int index = indexOf(uuid);
+        if (index < 0) {
+            return;
+        }
+        VouchPlayerState.of(players[index]).vouch$setJailSlot(-1);
+
+        // Move the last slot into the gap to keep the arrays dense
+        int last = --size;
+        if (index != last) {
+            players[index] = players[last];
+            xs[index] = xs[last];
+            ys[index] = ys[last];
+            zs[index] = zs[last];
+            yaws[index] = yaws[last];
+            pitches[index] = pitches[last];
+            anchored[index] = anchored[last];
+            VouchPlayerState.of(players[index]).vouch$setJailSlot(index);
+        }
+        players[last] = null;
+    }
+
+    /**
+     * Follow a jailed player onto the entity created when they respawn.
+     * The new anchor is taken on the next tick, once the respawn position is set.
+     */
+    public void onRespawn(ServerPlayerEntity oldPlayer, ServerPlayerEntity newPlayer) {
+        int index = slotOf(oldPlayer);
+        if (index >= 0) {
+            VouchPlayerState.of(oldPlayer).vouch$setJailSlot(-1);
+            players[index] = newPlayer;
+            VouchPlayerState.of(newPlayer).vouch$setJailSlot(index);
+            anchored[index] = false;
+        }
+    }
+
+    public boolean isJailed(UUID uuid) {
+        return indexOf(uuid) >= 0;
+    }
+
+    public int getJailedCount() {
+        return size;
+    }
+
+    /**
+     * Handle a movement packet before vanilla applies it.
+     *
+     * Jailed players' packets are dropped, so the server-side position never
+     * leaves the anchor. If the client reports a position (or, with a frozen
+     * camera, a rotation) past the tolerance, one corrective teleport is sent;
+     * nothing more is sent while it awaits confirmation.
+     *
+     * @param teleportPending whether a teleport is still awaiting confirmation
+     * @return true if the packet must be dropped
+     */
+    public boolean onMovePacket(ServerPlayerEntity player, PlayerMoveC2SPacket packet, boolean teleportPending) {
+        int i = slotOf(player);
+        if (i < 0) {
+            return false;
+        }
+        if (!anchored[i]) {
+            anchor(i, player);
+        }
+
+        boolean freezeCamera = VouchConfigManager.getInstance().freezeCamera();
+        if (!freezeCamera && packet.changesLook()) {
+            // Looking around is allowed; keep the server rotation current so corrections don't snap the view
+            player.setYaw(MathHelper.wrapDegrees(packet.getYaw(player.getYaw())));
+            player.setPitch(MathHelper.wrapDegrees(packet.getPitch(player.getPitch())));
+        }
+        if (teleportPending) {
+            return true;
+        }
+
+        boolean moved = false;
+        if (packet.changesPosition()) {
+            double dx = packet.getX(xs[i]) - xs[i];
+            double dy = packet.getY(ys[i]) - ys[i];
+            double dz = packet.getZ(zs[i]) - zs[i];
+            moved = dx * dx + dy * dy + dz * dz > TOLERANCE_SQ;
+        }
+        boolean turned = freezeCamera && packet.changesLook()
+                && rotated(i, packet.getYaw(yaws[i]), packet.getPitch(pitches[i]));
+
+        if (moved || turned) {
+            pullBack(i, player, freezeCamera);
+        }
+        return true;
+    }
+
+    /**
+     * Enforce the freeze for every jailed player. Called once per server tick.
+     *
+     * Movement packets are already dropped, so this only catches server-side
+     * changes (velocity, falling, other mods moving the player).
+     */
+    public void tick() {
+        if (size == 0) {
+            return;
+        }
+
+        boolean freezeCamera = VouchConfigManager.getInstance().freezeCamera();
+        for (int i = 0; i < size; i++) {
+            ServerPlayerEntity player = players[i];
+            if (!anchored[i]) {
+                anchor(i, player);
+                continue;
+            }
+
+            player.fallDistance = 0.0f;
+            player.setVelocity(Vec3d.ZERO);
+
+            double dx = player.getX() - xs[i];
+            double dy = player.getY() - ys[i];
+            double dz = player.getZ() - zs[i];
+            boolean moved = dx * dx + dy * dy + dz * dz > TOLERANCE_SQ;
+            boolean turned = freezeCamera && rotated(i, player.getYaw(), player.getPitch());
+
+            if (moved || turned) {
+                pullBack(i, player, freezeCamera);
+            }
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            VouchPlayerState.of(players[i]).vouch$setJailSlot(-1);
+            players[i] = null;
+        }
+        size = 0;
+    }
+
+    private void anchor(int index, ServerPlayerEntity player) {
+        xs[index] = player.getX();
+        ys[index] = player.getY();
+        zs[index] = player.getZ();
+        yaws[index] = player.getYaw();
+        pitches[index] = player.getPitch();
+        anchored[index] = true;
+    }
+
+    private boolean rotated(int index, float yaw, float pitch) {
+        return Math.abs(MathHelper.wrapDegrees(yaw - yaws[index])) > ROTATION_TOLERANCE
+                || Math.abs(pitch - pitches[index]) > ROTATION_TOLERANCE;
+    }
+
+    private void pullBack(int index, ServerPlayerEntity player, boolean freezeCamera) {
+        if (freezeCamera) {
+            player.setYaw(yaws[index]);
+            player.setPitch(pitches[index]);
+        }
+        // Sends the player's current rotation along with the anchor position
+        player.requestTeleport(xs[index], ys[index], zs[index]);
+    }
+
+    private int slotOf(ServerPlayerEntity player) {
+        int slot = VouchPlayerState.of(player).vouch$getJailSlot();
+        return slot >= 0 && slot < size && players[slot] == player ? slot : -1;
+    }
+
+    private int indexOf(UUID uuid) {
+        for (int i = 0; i < size; i++) {
+            if (players[i].getUuid().equals(uuid)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void grow() {
+        int capacity = players.length * 2;
+        players = Arrays.copyOf(players, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        yaws = Arrays.copyOf(yaws, capacity);
+        pitches = Arrays.copyOf(pitches, capacity);
+        anchored = Arrays.copyOf(anchored, capacity);
+    }
+}
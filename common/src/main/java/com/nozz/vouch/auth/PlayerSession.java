@@ -1,5 +1,8 @@
 package com.nozz.vouch.auth;
 
+import com.nozz.vouch.crypto.TOTPEngine;
+import com.nozz.vouch.crypto.TOTPKey;
+
 import java.time.Instant;
 import java.util.UUID;
 
@@ -24,6 +27,7 @@ public final class PlayerSession {
     private boolean awaiting2FA;           // Player passed password, needs 2FA code
     private String pending2FASecret;        // Secret during 2FA setup (not yet confirmed)
     private boolean is2FAOnlyRegistration;  // True if registering in 2FA-only mode (no password)
+    private TOTPKey totpKey;                // Decoded form of the secret last verified against
 
     // Login attempt tracking for rate limiting
     private int failedAttempts;
@@ -32,14 +36,6 @@ public final class PlayerSession {
     // State restoration
     private boolean originalAllowFlight;
 
-    // Jail Position (for granular pre-auth)
-    private double jailX;
-    private double jailY;
-    private double jailZ;
-    private float jailYaw;
-    private float jailPitch;
-    private boolean jailPosSet = false;
-
     public PlayerSession(UUID playerUuid, String playerName, String ipAddress) {
         this.playerUuid = playerUuid;
         this.playerName = playerName;
@@ -142,26 +138,6 @@ public final class PlayerSession {
         return originalAllowFlight;
     }
 
-    // Jail Position Getters/Setters
-    public void setJailPosition(double x, double y, double z, float yaw, float pitch) {
-        this.jailX = x;
-        this.jailY = y;
-        this.jailZ = z;
-        this.jailYaw = yaw;
-        this.jailPitch = pitch;
-        this.jailPosSet = true;
-    }
-
-    public boolean isJailPosSet() {
-        return jailPosSet;
-    }
-
-    public double getJailX() { return jailX; }
-    public double getJailY() { return jailY; }
-    public double getJailZ() { return jailZ; }
-    public float getJailYaw() { return jailYaw; }
-    public float getJailPitch() { return jailPitch; }
-
     /**
      * Check if player is awaiting 2FA verification (passed password check)
      */
@@ -190,6 +166,18 @@ public final class PlayerSession {
         this.pending2FASecret = secret;
     }
 
+    /**
+     * Get the decoded TOTP key for a secret, decoding it only when the secret changed.
+     */
+    public TOTPKey getTotpKey(String secret) {
+        TOTPKey key = totpKey;
+        if (key == null || !key.matches(secret)) {
+            key = TOTPEngine.decodeKey(secret);
+            totpKey = key;
+        }
+        return key;
+    }
+
     /**
      * Clear the pending 2FA secret (after setup complete or cancelled)
      */
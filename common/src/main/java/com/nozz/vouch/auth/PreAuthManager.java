@@ -1,6 +1,5 @@
 package com.nozz.vouch.auth;
 
-import com.nozz.vouch.VouchMod;
 import com.nozz.vouch.config.VouchConfigManager;
 import com.nozz.vouch.util.Messages;
 import com.nozz.vouch.util.QRMapRenderer;
@@ -16,20 +15,16 @@ import org.slf4j.LoggerFactory;
 import static com.nozz.vouch.util.PacketHelper.sendPacket;
 
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Manages pre-authentication state for players.
  * 
  * Handles:
- * - Countdown timer with visual feedback (BossBar + ActionBar)
+ * - Countdown timer with visual feedback (BossBar + ActionBar), driven by
+ *   the server tick through a {@link CountdownWheel}
  * - Pre-auth effects (blindness, slowness, hiding)
- * - Position freezing
+ * - Position freezing (through {@link JailSystem})
  * - UX feedback integration
  */
 public final class PreAuthManager {
@@ -37,14 +32,9 @@ public final class PreAuthManager {
 
     private static PreAuthManager instance;
 
-    private final Map<UUID, ScheduledFuture<?>> countdownTasks = new ConcurrentHashMap<>();
-    private final Map<UUID, Integer> remainingSeconds = new ConcurrentHashMap<>();
-    
-    private final ScheduledThreadPoolExecutor scheduler;
+    private final CountdownWheel countdowns = new CountdownWheel(this::tickCountdown);
 
     private PreAuthManager() {
-        this.scheduler = new ScheduledThreadPoolExecutor(1);
-        this.scheduler.setRemoveOnCancelPolicy(true);
     }
 
     public static PreAuthManager getInstance() {
@@ -66,13 +56,8 @@ public final class PreAuthManager {
 
         LOGGER.debug("Starting pre-auth for player {}", player.getName().getString());
 
-        // Store original position for freeze
-        if (config.freezePosition()) {
-            session.setJailPosition(
-                player.getX(), player.getY(), player.getZ(),
-                player.getYaw(), player.getPitch()
-            );
-        }
+        // Hold the player where they joined (no-op if already jailed while the join lookup ran)
+        JailSystem.getInstance().jail(player);
 
         applyPreAuthEffects(player);
 
@@ -170,39 +155,30 @@ public final class PreAuthManager {
      * Start the countdown timer for a player
      */
     private void startCountdown(ServerPlayerEntity player, int totalSeconds) {
-        UUID uuid = player.getUuid();
-        
-        remainingSeconds.put(uuid, totalSeconds);
-
         // Show initial BossBar
         UXManager.getInstance().showCountdownBossBar(player, totalSeconds);
 
-        // Schedule countdown tick every second
-        ScheduledFuture<?> task = scheduler.scheduleAtFixedRate(() -> {
-            VouchMod.getInstance().runOnMainThread(() -> tickCountdown(player, totalSeconds));
-        }, 1, 1, TimeUnit.SECONDS);
+        countdowns.add(player, totalSeconds);
+    }
 
-        countdownTasks.put(uuid, task);
+    /**
+     * Advance the countdown wheel. Called once per server tick.
+     */
+    public void tick() {
+        countdowns.tick();
     }
 
     /**
-     * Tick the countdown for a player (called every second)
+     * Tick the countdown for a player (called every second by the wheel)
      */
-    private void tickCountdown(ServerPlayerEntity player, int totalSeconds) {
+    private void tickCountdown(ServerPlayerEntity player, int remaining, int totalSeconds) {
         UUID uuid = player.getUuid();
-        
 
         if (!player.isAlive() || !AuthManager.getInstance().isPendingAuth(uuid)) {
             cancelCountdown(uuid);
             return;
         }
 
-        Integer remaining = remainingSeconds.get(uuid);
-        if (remaining == null) return;
-
-        remaining--;
-        remainingSeconds.put(uuid, remaining);
-
         UXManager ux = UXManager.getInstance();
         PlayerSession session = AuthManager.getInstance().getSession(uuid);
 
@@ -240,38 +216,6 @@ public final class PreAuthManager {
         LOGGER.info("Player {} kicked for auth timeout", player.getName().getString());
     }
 
-    /**
-     * Enforce position freeze for a player
-     */
-    public void enforcePositionFreeze(ServerPlayerEntity player) {
-        VouchConfigManager config = VouchConfigManager.getInstance();
-        if (!config.freezePosition()) return;
-
-        PlayerSession session = AuthManager.getInstance().getSession(player.getUuid());
-        if (session == null || !session.isJailPosSet()) return;
-
-        // Teleport back to jail position if moved
-        double dx = player.getX() - session.getJailX();
-        double dy = player.getY() - session.getJailY();
-        double dz = player.getZ() - session.getJailZ();
-        
-        double distSq = dx * dx + dy * dy + dz * dz;
-        if (distSq > 0.1) { // Allow tiny movements
-            // Use requestTeleport for smooth teleportation
-            player.requestTeleport(
-                session.getJailX(), 
-                session.getJailY(), 
-                session.getJailZ()
-            );
-            
-            // If camera freeze is enabled, also reset rotation
-            if (config.freezeCamera()) {
-                player.setYaw(session.getJailYaw());
-                player.setPitch(session.getJailPitch());
-            }
-        }
-    }
-
     /**
      * End pre-auth state for a player (on successful auth)
      */
@@ -282,6 +226,7 @@ public final class PreAuthManager {
         LOGGER.debug("Ending pre-auth for player {}", player.getName().getString());
 
         cancelCountdown(uuid);
+        JailSystem.getInstance().release(uuid);
 
         QRMapRenderer.removeQRMap(player);
 
@@ -306,19 +251,24 @@ public final class PreAuthManager {
      * Cancel countdown for a player
      */
     private void cancelCountdown(UUID uuid) {
-        ScheduledFuture<?> task = countdownTasks.remove(uuid);
-        if (task != null) {
-            task.cancel(false);
-        }
-        remainingSeconds.remove(uuid);
+        countdowns.remove(uuid);
         UXManager.getInstance().removeCountdownBossBar(uuid);
     }
 
+    /**
+     * Move pre-auth tracking to the entity created when a player respawns
+     */
+    public void onRespawn(ServerPlayerEntity oldPlayer, ServerPlayerEntity newPlayer) {
+        JailSystem.getInstance().onRespawn(oldPlayer, newPlayer);
+        countdowns.replacePlayer(newPlayer);
+    }
+
     /**
      * Clean up when player disconnects
      */
     public void onPlayerDisconnect(UUID uuid) {
         cancelCountdown(uuid);
+        JailSystem.getInstance().release(uuid);
         UXManager.getInstance().cleanupPlayer(uuid);
     }
 
@@ -326,27 +276,20 @@ public final class PreAuthManager {
      * Get remaining seconds for a player's countdown
      */
     public int getRemainingSeconds(UUID uuid) {
-        return remainingSeconds.getOrDefault(uuid, 0);
+        return countdowns.getRemainingSeconds(uuid);
     }
 
     /**
      * Check if a player has an active countdown
      */
     public boolean hasActiveCountdown(UUID uuid) {
-        return countdownTasks.containsKey(uuid) && remainingSeconds.containsKey(uuid);
+        return countdowns.contains(uuid);
     }
 
     public void shutdown() {
-        // Cancel all tasks
-        for (ScheduledFuture<?> task : countdownTasks.values()) {
-            task.cancel(false);
-        }
-        countdownTasks.clear();
-        remainingSeconds.clear();
+        countdowns.clear();
+        JailSystem.getInstance().clear();
 
-        // Shutdown scheduler
-        scheduler.shutdownNow();
-        
         LOGGER.debug("PreAuthManager shutdown complete");
     }
 }
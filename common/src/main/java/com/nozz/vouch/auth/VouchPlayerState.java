@@ -0,0 +1,31 @@
+package com.nozz.vouch.auth;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Auth state stored on the player entity itself (implemented by
+ * ServerPlayerEntityMixin).
+ *
+ * Damage, interaction, chat and tick hooks run several times per player
+ * per tick; reading a field on the entity avoids hashing the UUID into
+ * AuthManager's session maps each time. {@link AuthManager} is the only
+ * writer and keeps the flag in step with its sessions. The flag is copied to
+ * the new entity when a player respawns.
+ *
+ * The jail slot is the player's index in {@link JailSystem} (-1 when not
+ * jailed), so movement packets find their anchor without a lookup.
+ */
+public interface VouchPlayerState {
+
+    boolean vouch$isAuthenticated();
+
+    void vouch$setAuthenticated(boolean authenticated);
+
+    int vouch$getJailSlot();
+
+    void vouch$setJailSlot(int slot);
+
+    static VouchPlayerState of(ServerPlayerEntity player) {
+        return (VouchPlayerState) player;
+    }
+}
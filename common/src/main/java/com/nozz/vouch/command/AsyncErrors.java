@@ -0,0 +1,44 @@
+package com.nozz.vouch.command;
+
+import com.nozz.vouch.VouchMod;
+import com.nozz.vouch.util.Messages;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Shared handling of failed async operations started by player commands.
+ */
+final class AsyncErrors {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/Commands");
+
+    private AsyncErrors() {
+    }
+
+    /**
+     * Report a failed async operation (database timeout, full queue) to the player.
+     * Rejected work (saturated database or hashing queue) gets a "server busy" reply;
+     * work cancelled because the player disconnected is dropped silently.
+     *
+     * Returns null so it can be passed straight to {@code exceptionally}.
+     */
+    static Void report(ServerPlayerEntity player, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            LOGGER.debug("Cancelled operation for player {}", player.getName().getString());
+            return null;
+        }
+        if (cause instanceof RejectedExecutionException) {
+            LOGGER.warn("Rejected operation for player {}: {}", player.getName().getString(), cause.getMessage());
+            VouchMod.getInstance().runOnMainThread(() -> player.sendMessage(Messages.serverBusy(), false));
+            return null;
+        }
+        LOGGER.error("Async operation failed for player {}", player.getName().getString(), error);
+        VouchMod.getInstance().runOnMainThread(() -> player.sendMessage(Messages.databaseError(), false));
+        return null;
+    }
+}
@@ -6,9 +6,11 @@ import com.mojang.brigadier.context.CommandContext;
 import com.nozz.vouch.VouchMod;
 import com.nozz.vouch.auth.AuthManager;
 import com.nozz.vouch.auth.AuthMode;
+import com.nozz.vouch.auth.CredentialGate;
 import com.nozz.vouch.auth.PlayerSession;
 import com.nozz.vouch.config.VouchConfigManager;
 import com.nozz.vouch.crypto.TOTPEngine;
+import com.nozz.vouch.crypto.TOTPKey;
 import com.nozz.vouch.db.DatabaseManager;
 import com.nozz.vouch.util.LangManager;
 import com.nozz.vouch.util.Messages;
@@ -22,6 +24,8 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Two-Factor Authentication commands for Vouch.
  * 
@@ -112,9 +116,15 @@ public final class TwoFactorCommands {
             return 0;
         }
 
-        db.has2FAEnabled(player.getUuid()).thenAccept(has2FA -> {
+        CredentialGate.Ticket ticket = CredentialGate.getInstance().tryAcquire(player.getUuid());
+        if (ticket == null) {
+            player.sendMessage(Messages.requestInProgress(), false);
+            return 0;
+        }
+
+        ticket.releaseWhenDone(ticket.track(db.getAuthProfile(player.getUuid())).thenAccept(profile -> {
             VouchMod.getInstance().runOnMainThread(() -> {
-                if (has2FA) {
+                if (profile.totpEnabled()) {
                     player.sendMessage(Messages.twoFactorAlreadyEnabled(), false);
                     return;
                 }
@@ -141,7 +151,7 @@ public final class TwoFactorCommands {
                     LOGGER.error("Failed to send QR code to player {}", accountName);
                 }
             });
-        });
+        }).exceptionally(error -> AsyncErrors.report(player, error)));
 
         return 1;
     }
@@ -199,18 +209,25 @@ public final class TwoFactorCommands {
      * Verify TOTP code during 2FA setup
      */
     private static int verifySetup(ServerPlayerEntity player, PlayerSession session, String secret, String code) {
-        if (!TOTPEngine.verifyCode(secret, code)) {
+        if (!TOTPEngine.verifyCode(session.getTotpKey(secret), code)) {
             player.sendMessage(Messages.twoFactorInvalidCode(), false);
             session.recordFailedAttempt();
             LOGGER.debug("Invalid 2FA setup code from player {}", player.getName().getString());
             return 0;
         }
 
+        CredentialGate.Ticket ticket = CredentialGate.getInstance().tryAcquire(player.getUuid());
+        if (ticket == null) {
+            player.sendMessage(Messages.requestInProgress(), false);
+            return 0;
+        }
+
         DatabaseManager db = DatabaseManager.getInstance();
         boolean is2FAOnlyRegistration = session.is2FAOnlyRegistration();
 
         if (is2FAOnlyRegistration) {
-            db.registerPlayerWith2FA(player.getUuid(), player.getName().getString(), secret).thenAccept(success -> {
+            ticket.releaseWhenDone(ticket.track(
+                    db.registerPlayerWith2FA(player.getUuid(), player.getName().getString(), secret)).thenAccept(success -> {
                 VouchMod.getInstance().runOnMainThread(() -> {
                     if (success) {
                         session.clearPending2FASecret();
@@ -224,9 +241,9 @@ public final class TwoFactorCommands {
                         LOGGER.error("Failed to register player {} with 2FA", player.getName().getString());
                     }
                 });
-            });
+            }).exceptionally(error -> AsyncErrors.report(player, error)));
         } else {
-            db.storeTOTPSecret(player.getUuid(), secret).thenAccept(success -> {
+            ticket.releaseWhenDone(ticket.track(db.storeTOTPSecret(player.getUuid(), secret)).thenAccept(success -> {
                 VouchMod.getInstance().runOnMainThread(() -> {
                     if (success) {
                         session.clearPending2FASecret();
@@ -240,7 +257,7 @@ public final class TwoFactorCommands {
                         LOGGER.error("Failed to store 2FA secret for player {}", player.getName().getString());
                     }
                 });
-            });
+            }).exceptionally(error -> AsyncErrors.report(player, error)));
         }
 
         return 1;
@@ -250,10 +267,17 @@ public final class TwoFactorCommands {
      * Verify TOTP code during login
      */
     private static int verifyLogin(ServerPlayerEntity player, PlayerSession session, String code) {
+        CredentialGate.Ticket ticket = CredentialGate.getInstance().tryAcquire(player.getUuid());
+        if (ticket == null) {
+            player.sendMessage(Messages.requestInProgress(), false);
+            return 0;
+        }
+
         DatabaseManager db = DatabaseManager.getInstance();
 
-        db.getTOTPSecret(player.getUuid()).thenAccept(secretOpt -> {
+        ticket.releaseWhenDone(ticket.track(db.getAuthProfile(player.getUuid())).thenAccept(profile -> {
             VouchMod.getInstance().runOnMainThread(() -> {
+                var secretOpt = profile.activeTotpSecret();
                 if (secretOpt.isEmpty()) {
                     player.sendMessage(Messages.twoFactorNotEnabled(), false);
                     return;
@@ -261,7 +285,7 @@ public final class TwoFactorCommands {
 
                 String secret = secretOpt.get();
 
-                if (!TOTPEngine.verifyCode(secret, code)) {
+                if (!TOTPEngine.verifyCode(session.getTotpKey(secret), code)) {
                     UXManager.getInstance().sendMessage(player, LangManager.getInstance().get("vouch.2fa.invalid_code"));
                     session.recordFailedAttempt();
 
@@ -280,7 +304,7 @@ public final class TwoFactorCommands {
 
                 LOGGER.info("Player {} logged in with 2FA", player.getName().getString());
             });
-        });
+        }).exceptionally(error -> AsyncErrors.report(player, error)));
 
         return 1;
     }
@@ -319,39 +343,46 @@ public final class TwoFactorCommands {
             return 0;
         }
 
+        CredentialGate.Ticket ticket = CredentialGate.getInstance().tryAcquire(player.getUuid());
+        if (ticket == null) {
+            player.sendMessage(Messages.requestInProgress(), false);
+            return 0;
+        }
+
         DatabaseManager db = DatabaseManager.getInstance();
-        db.getTOTPSecret(player.getUuid()).thenAccept(secretOpt -> {
-            VouchMod.getInstance().runOnMainThread(() -> {
-                if (secretOpt.isEmpty()) {
-                    player.sendMessage(Messages.twoFactorNotEnabled(), false);
-                    return;
-                }
+        // The code is checked off the main thread so the disable write joins the same tracked chain
+        ticket.releaseWhenDone(ticket.track(db.getAuthProfile(player.getUuid())).thenCompose(profile -> {
+            var secretOpt = profile.activeTotpSecret();
+            if (secretOpt.isEmpty()) {
+                VouchMod.getInstance().runOnMainThread(() -> player.sendMessage(Messages.twoFactorNotEnabled(), false));
+                return CompletableFuture.completedFuture(null);
+            }
 
-                String secret = secretOpt.get();
+            String secret = secretOpt.get();
+            PlayerSession session = authManager.getSession(player.getUuid());
+            TOTPKey key = session != null ? session.getTotpKey(secret) : TOTPEngine.decodeKey(secret);
 
-                if (!TOTPEngine.verifyCode(secret, code)) {
-                    player.sendMessage(Messages.twoFactorInvalidCode(), false);
-                    LOGGER.debug("Invalid 2FA disable code from player {}", player.getName().getString());
-                    return;
-                }
+            if (!TOTPEngine.verifyCode(key, code)) {
+                VouchMod.getInstance().runOnMainThread(() -> player.sendMessage(Messages.twoFactorInvalidCode(), false));
+                LOGGER.debug("Invalid 2FA disable code from player {}", player.getName().getString());
+                return CompletableFuture.completedFuture(null);
+            }
 
-                db.disable2FA(player.getUuid()).thenAccept(success -> {
-                    VouchMod.getInstance().runOnMainThread(() -> {
-                        if (success) {
-                            PlayerSession session = authManager.getSession(player.getUuid());
-                            if (session != null) {
-                                session.set2FAEnabled(false);
-                            }
-
-                            player.sendMessage(Messages.twoFactorDisabled(), false);
-                            LOGGER.info("2FA disabled for player {}", player.getName().getString());
-                        } else {
-                            player.sendMessage(Messages.databaseError(), false);
+            return ticket.track(db.disable2FA(player.getUuid())).thenAccept(success -> {
+                VouchMod.getInstance().runOnMainThread(() -> {
+                    if (success) {
+                        if (session != null) {
+                            session.set2FAEnabled(false);
                         }
-                    });
+
+                        player.sendMessage(Messages.twoFactorDisabled(), false);
+                        LOGGER.info("2FA disabled for player {}", player.getName().getString());
+                    } else {
+                        player.sendMessage(Messages.databaseError(), false);
+                    }
                 });
             });
-        });
+        }).exceptionally(error -> AsyncErrors.report(player, error)));
 
         return 1;
     }
@@ -382,15 +413,15 @@ public final class TwoFactorCommands {
             return 0;
         }
 
-        DatabaseManager.getInstance().has2FAEnabled(player.getUuid()).thenAccept(has2FA -> {
+        DatabaseManager.getInstance().getAuthProfile(player.getUuid()).thenAccept(profile -> {
             VouchMod.getInstance().runOnMainThread(() -> {
-                if (has2FA) {
+                if (profile.totpEnabled()) {
                     player.sendMessage(Messages.twoFactorStatusEnabled(), false);
                 } else {
                     player.sendMessage(Messages.twoFactorStatusDisabled(), false);
                 }
             });
-        });
+        }).exceptionally(error -> AsyncErrors.report(player, error));
 
         return 1;
     }
@@ -6,13 +6,25 @@ import com.mojang.brigadier.context.CommandContext;
 import com.nozz.vouch.VouchMod;
 import com.nozz.vouch.auth.AuthManager;
 import com.nozz.vouch.auth.AuthMode;
+import com.nozz.vouch.auth.CredentialGate;
 import com.nozz.vouch.auth.PlayerSession;
 import com.nozz.vouch.auth.RateLimiter;
 import com.nozz.vouch.config.VouchConfigManager;
+import com.nozz.vouch.crypto.Argon2Calibrator;
 import com.nozz.vouch.crypto.Argon2Hasher;
+import com.nozz.vouch.crypto.Argon2MemoryPool;
+import com.nozz.vouch.crypto.Argon2Params;
+import com.nozz.vouch.crypto.HashPriority;
+import com.nozz.vouch.crypto.HashingScheduler;
 import com.nozz.vouch.crypto.TOTPEngine;
+import com.nozz.vouch.crypto.TOTPKey;
+import com.nozz.vouch.crypto.remote.RemoteHashClient;
+import com.nozz.vouch.db.CredentialCache;
+import com.nozz.vouch.db.DatabaseExecutor;
 import com.nozz.vouch.db.DatabaseManager;
+import com.nozz.vouch.db.WriteBehindQueue;
 import com.nozz.vouch.util.LangManager;
+import com.nozz.vouch.util.MainThreadQueue;
 import com.nozz.vouch.util.Messages;
 import com.nozz.vouch.util.PermissionHelper;
 import com.nozz.vouch.util.QRMapRenderer;
@@ -24,6 +36,8 @@ import net.minecraft.server.network.ServerPlayerEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Command registration for Vouch authentication commands.
  * 
@@ -33,6 +47,8 @@ import org.slf4j.LoggerFactory;
  * - /vouch admin reload
  * - /vouch admin unregister <player>
  * - /vouch admin export-lang
+ * - /vouch admin stats
+ * - /vouch admin calibrate
  * - /auth (alias for /vouch)
  */
 public final class VouchCommands {
@@ -107,7 +123,13 @@ public final class VouchCommands {
                                                 .executes(VouchCommands::executeUnregister)))
                                 .then(CommandManager.literal("export-lang")
                                         .requires(source -> PermissionHelper.hasAdminPermission(source, PermissionHelper.Nodes.ADMIN_EXPORT_LANG))
-                                        .executes(VouchCommands::executeExportLang))));
+                                        .executes(VouchCommands::executeExportLang))
+                                .then(CommandManager.literal("stats")
+                                        .requires(source -> PermissionHelper.hasAdminPermission(source, PermissionHelper.Nodes.ADMIN_STATS))
+                                        .executes(VouchCommands::executeStats))
+                                .then(CommandManager.literal("calibrate")
+                                        .requires(source -> PermissionHelper.hasAdminPermission(source, PermissionHelper.Nodes.ADMIN_CALIBRATE))
+                                        .executes(VouchCommands::executeCalibrate))));
 
         // /auth - alias for /vouch
         dispatcher.register(
@@ -122,7 +144,13 @@ public final class VouchCommands {
                                                 .executes(VouchCommands::executeUnregister)))
                                 .then(CommandManager.literal("export-lang")
                                         .requires(source -> PermissionHelper.hasAdminPermission(source, PermissionHelper.Nodes.ADMIN_EXPORT_LANG))
-                                        .executes(VouchCommands::executeExportLang))));
+                                        .executes(VouchCommands::executeExportLang))
+                                .then(CommandManager.literal("stats")
+                                        .requires(source -> PermissionHelper.hasAdminPermission(source, PermissionHelper.Nodes.ADMIN_STATS))
+                                        .executes(VouchCommands::executeStats))
+                                .then(CommandManager.literal("calibrate")
+                                        .requires(source -> PermissionHelper.hasAdminPermission(source, PermissionHelper.Nodes.ADMIN_CALIBRATE))
+                                        .executes(VouchCommands::executeCalibrate))));
 
         // /logout - Invalidate session and disconnect
         dispatcher.register(
@@ -188,35 +216,41 @@ public final class VouchCommands {
             return 0;
         }
 
+        CredentialGate.Ticket ticket = CredentialGate.getInstance().tryAcquire(player.getUuid());
+        if (ticket == null) {
+            player.sendMessage(Messages.requestInProgress(), false);
+            return 0;
+        }
+
         // Check if already registered
         DatabaseManager db = DatabaseManager.getInstance();
         sendProcessingMessage(player);
 
-        db.isRegistered(player.getUuid()).thenAccept(isRegistered -> {
-            if (isRegistered) {
+        ticket.releaseWhenDone(ticket.track(db.getAuthProfile(player.getUuid())).thenCompose(profile -> {
+            if (profile.registered()) {
                 // Must run on main thread for player interaction
                 VouchMod.getInstance().runOnMainThread(() -> {
                     player.sendMessage(Messages.alreadyRegistered(), false);
                 });
-                return;
+                return CompletableFuture.completedFuture(null);
             }
 
-            // Hash password asynchronously
-            Argon2Hasher.hashAsync(password).thenAccept(hash -> {
-                // Register player in database
-                db.registerPlayer(player.getUuid(), player.getName().getString(), hash).thenAccept(success -> {
-                    VouchMod.getInstance().runOnMainThread(() -> {
-                        if (success) {
-                            authManager.authenticatePlayer(player);
-                            UXManager.getInstance().onRegisterSuccess(player);
-                            LOGGER.info("Player {} registered successfully", player.getName().getString());
-                        } else {
-                            player.sendMessage(Messages.databaseError(), false);
-                        }
+            // Hash password asynchronously, then register player in database
+            return ticket.track(Argon2Hasher.hashAsync(password, HashPriority.REGISTRATION, ip))
+                    .thenCompose(hash -> ticket.track(
+                            db.registerPlayer(player.getUuid(), player.getName().getString(), hash)))
+                    .thenAccept(success -> {
+                        VouchMod.getInstance().runOnMainThread(() -> {
+                            if (success) {
+                                authManager.authenticatePlayer(player);
+                                UXManager.getInstance().onRegisterSuccess(player);
+                                LOGGER.info("Player {} registered successfully", player.getName().getString());
+                            } else {
+                                player.sendMessage(Messages.databaseError(), false);
+                            }
+                        });
                     });
-                });
-            });
-        });
+        }).exceptionally(error -> AsyncErrors.report(player, error)));
 
         return 1;
     }
@@ -255,12 +289,18 @@ public final class VouchCommands {
             return 0;
         }
 
+        CredentialGate.Ticket ticket = CredentialGate.getInstance().tryAcquire(player.getUuid());
+        if (ticket == null) {
+            player.sendMessage(Messages.requestInProgress(), false);
+            return 0;
+        }
+
         sendProcessingMessage(player);
 
         // Check if already registered
-        db.isRegistered(player.getUuid()).thenAccept(isRegistered -> {
+        ticket.releaseWhenDone(ticket.track(db.getAuthProfile(player.getUuid())).thenAccept(profile -> {
             VouchMod.getInstance().runOnMainThread(() -> {
-                if (isRegistered) {
+                if (profile.registered()) {
                     player.sendMessage(Messages.alreadyRegistered(), false);
                     return;
                 }
@@ -290,7 +330,7 @@ public final class VouchCommands {
                     LOGGER.error("Failed to send QR code to player {}", accountName);
                 }
             });
-        });
+        }).exceptionally(error -> AsyncErrors.report(player, error)));
 
         return 1;
     }
@@ -326,75 +366,77 @@ public final class VouchCommands {
             return 0;
         }
 
+        CredentialGate.Ticket ticket = CredentialGate.getInstance().tryAcquire(player.getUuid());
+        if (ticket == null) {
+            player.sendMessage(Messages.requestInProgress(), false);
+            return 0;
+        }
+
         String password = StringArgumentType.getString(context, "password");
         DatabaseManager db = DatabaseManager.getInstance();
 
         sendProcessingMessage(player);
 
-        db.isRegistered(player.getUuid()).thenAccept(isRegistered -> {
-            if (!isRegistered) {
+        // One query loads the hash and 2FA state; the result is reused after verification
+        ticket.releaseWhenDone(ticket.track(db.getAuthProfile(player.getUuid())).thenCompose(profile -> {
+            if (!profile.registered()) {
                 VouchMod.getInstance().runOnMainThread(() -> {
                     player.sendMessage(Messages.notRegistered(), false);
                 });
-                return;
+                return CompletableFuture.completedFuture(null);
             }
 
-            db.getPasswordHash(player.getUuid()).thenAccept(hashOptional -> {
-                if (hashOptional.isEmpty()) {
-                    VouchMod.getInstance().runOnMainThread(() -> {
-                        player.sendMessage(Messages.databaseError(), false);
-                    });
-                    return;
+            if (!profile.hasPassword()) {
+                VouchMod.getInstance().runOnMainThread(() -> {
+                    player.sendMessage(Messages.databaseError(), false);
+                });
+                return CompletableFuture.completedFuture(null);
+            }
+
+            return ticket.track(Argon2Hasher.verifyAsync(password, profile.passwordHash(),
+                    HashPriority.LOGIN_VERIFY, ip)).thenAccept(valid -> {
+                if (valid && Argon2Hasher.needsRehash(profile.passwordHash())) {
+                    rehashInBackground(player, password, profile.passwordHash());
                 }
 
-                String storedHash = hashOptional.get();
-
-                Argon2Hasher.verifyAsync(password, storedHash).thenAccept(valid -> {
-                    VouchMod.getInstance().runOnMainThread(() -> {
-                        if (valid) {
-            
-                            RateLimiter.getInstance().recordSuccess(ip);
-
-                            db.has2FAEnabled(player.getUuid()).thenAccept(has2FA -> {
-                                VouchMod.getInstance().runOnMainThread(() -> {
-                                    if (has2FA) {
-
-                                        authManager.require2FA(player);
-                                        player.sendMessage(
-                                                LangManager.getInstance().getTextWithPrefix("vouch.2fa.required"),
-                                                false);
-                                        LOGGER.debug("Player {} requires 2FA verification",
-                                                player.getName().getString());
-                                    } else {
-                                        VouchConfigManager config = VouchConfigManager.getInstance();
-                                        if (config.isRequire2FAForOps() && isPlayerOp(player)) {
-
-                                            authManager.authenticatePlayer(player);
-                                            player.sendMessage(LangManager.getInstance()
-                                                    .getTextWithPrefix("vouch.2fa.required_for_ops"), false);
-                                            LOGGER.info("OP {} logged in, 2FA setup required",
-                                                    player.getName().getString());
-                                        } else {
-
-                                            authManager.authenticatePlayer(player);
-                                            UXManager.getInstance().onLoginSuccess(player);
-                                            LOGGER.info("Player {} logged in successfully",
-                                                    player.getName().getString());
-                                        }
-
-                                        db.updateLastLogin(player.getUuid(), ip);
-                                    }
-                                });
-                            });
+                VouchMod.getInstance().runOnMainThread(() -> {
+                    if (valid) {
+                        RateLimiter.getInstance().recordSuccess(ip);
+
+                        if (profile.totpEnabled()) {
+                            authManager.require2FA(player);
+                            player.sendMessage(
+                                    LangManager.getInstance().getTextWithPrefix("vouch.2fa.required"),
+                                    false);
+                            LOGGER.debug("Player {} requires 2FA verification",
+                                    player.getName().getString());
                         } else {
-                            RateLimiter.getInstance().recordFailure(ip);
-                            UXManager.getInstance().onWrongPassword(player);
-                            LOGGER.warn("Failed login attempt for player {}", player.getName().getString());
+                            VouchConfigManager config = VouchConfigManager.getInstance();
+                            if (config.isRequire2FAForOps() && isPlayerOp(player)) {
+
+                                authManager.authenticatePlayer(player);
+                                player.sendMessage(LangManager.getInstance()
+                                        .getTextWithPrefix("vouch.2fa.required_for_ops"), false);
+                                LOGGER.info("OP {} logged in, 2FA setup required",
+                                        player.getName().getString());
+                            } else {
+
+                                authManager.authenticatePlayer(player);
+                                UXManager.getInstance().onLoginSuccess(player);
+                                LOGGER.info("Player {} logged in successfully",
+                                        player.getName().getString());
+                            }
+
+                            db.updateLastLogin(player.getUuid(), ip);
                         }
-                    });
+                    } else {
+                        RateLimiter.getInstance().recordFailure(ip);
+                        UXManager.getInstance().onWrongPassword(player);
+                        LOGGER.warn("Failed login attempt for player {}", player.getName().getString());
+                    }
                 });
             });
-        });
+        }).exceptionally(error -> AsyncErrors.report(player, error)));
 
         return 1;
     }
@@ -439,39 +481,44 @@ public final class VouchCommands {
             return 0;
         }
 
+        CredentialGate.Ticket ticket = CredentialGate.getInstance().tryAcquire(player.getUuid());
+        if (ticket == null) {
+            player.sendMessage(Messages.requestInProgress(), false);
+            return 0;
+        }
+
         DatabaseManager db = DatabaseManager.getInstance();
         sendProcessingMessage(player);
-        db.isRegistered(player.getUuid()).thenAccept(isRegistered -> {
-            if (!isRegistered) {
-                VouchMod.getInstance().runOnMainThread(() -> {
+        ticket.releaseWhenDone(ticket.track(db.getAuthProfile(player.getUuid())).thenAccept(profile -> {
+            VouchMod.getInstance().runOnMainThread(() -> {
+                if (!profile.registered()) {
                     player.sendMessage(Messages.notRegistered(), false);
-                });
-                return;
-            }
-
-            db.getTOTPSecret(player.getUuid()).thenAccept(secretOpt -> {
-                VouchMod.getInstance().runOnMainThread(() -> {
-                    if (secretOpt.isEmpty()) {
-                        player.sendMessage(Messages.twoFactorNotEnabled(), false);
-                        return;
-                    }
+                    return;
+                }
 
-                    String secret = secretOpt.get();
+                var secretOpt = profile.activeTotpSecret();
+                if (secretOpt.isEmpty()) {
+                    player.sendMessage(Messages.twoFactorNotEnabled(), false);
+                    return;
+                }
 
-                    if (TOTPEngine.verifyCode(secret, code)) {
-                        RateLimiter.getInstance().recordSuccess(ip);
-                        authManager.authenticatePlayer(player);
-                        UXManager.getInstance().onLoginSuccess(player);
-                        db.updateLastLogin(player.getUuid(), ip);
-                        LOGGER.info("Player {} logged in with 2FA (2FA-only mode)", player.getName().getString());
-                    } else {
-                        RateLimiter.getInstance().recordFailure(ip);
-                        UXManager.getInstance().onWrongPassword(player);
-                        LOGGER.warn("Failed 2FA login attempt for player {}", player.getName().getString());
-                    }
-                });
+                String secret = secretOpt.get();
+                PlayerSession session = authManager.getSession(player.getUuid());
+                TOTPKey key = session != null ? session.getTotpKey(secret) : TOTPEngine.decodeKey(secret);
+
+                if (TOTPEngine.verifyCode(key, code)) {
+                    RateLimiter.getInstance().recordSuccess(ip);
+                    authManager.authenticatePlayer(player);
+                    UXManager.getInstance().onLoginSuccess(player);
+                    db.updateLastLogin(player.getUuid(), ip);
+                    LOGGER.info("Player {} logged in with 2FA (2FA-only mode)", player.getName().getString());
+                } else {
+                    RateLimiter.getInstance().recordFailure(ip);
+                    UXManager.getInstance().onWrongPassword(player);
+                    LOGGER.warn("Failed 2FA login attempt for player {}", player.getName().getString());
+                }
             });
-        });
+        }).exceptionally(error -> AsyncErrors.report(player, error)));
 
         return 1;
     }
@@ -491,6 +538,29 @@ public final class VouchCommands {
         return true;
     }
 
+    /**
+     * Upgrade a stored hash to the current format and parameters after a successful login.
+     * Runs at the lowest hashing priority; failures are logged and the old hash is kept.
+     */
+    private static void rehashInBackground(ServerPlayerEntity player, String password, String oldHash) {
+        String name = player.getName().getString();
+
+        Argon2Hasher.hashAsync(password, HashPriority.REHASH, null)
+                .thenCompose(newHash -> DatabaseManager.getInstance()
+                        .updatePasswordHash(player.getUuid(), oldHash, newHash))
+                .thenAccept(updated -> {
+                    if (updated) {
+                        LOGGER.info("Upgraded password hash for player {}", name);
+                    } else {
+                        LOGGER.debug("Password hash for player {} changed before rehash completed", name);
+                    }
+                })
+                .exceptionally(error -> {
+                    LOGGER.debug("Skipped password rehash for player {}: {}", name, error.getMessage());
+                    return null;
+                });
+    }
+
     /**
      * Send processing message if enabled in config
      */
@@ -542,6 +612,142 @@ public final class VouchCommands {
         }
     }
 
+    /**
+     * Handle /vouch admin stats
+     * Shows runtime metrics for Vouch's background work.
+     */
+    private static int executeStats(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        DatabaseExecutor dbExecutor = DatabaseExecutor.getInstance();
+
+        source.sendMessage(Messages.statsHeader());
+        source.sendMessage(Messages.statsDatabase(
+                dbExecutor.getActiveCount(),
+                dbExecutor.getQueuedCount(),
+                dbExecutor.getCompletedCount(),
+                dbExecutor.getTimedOutCount(),
+                dbExecutor.getRejectedCount()));
+
+        WriteBehindQueue writeBehind = WriteBehindQueue.getInstance();
+        if (writeBehind.isRunning()) {
+            source.sendMessage(Messages.statsWriteBehind(
+                    writeBehind.getPendingCount(),
+                    writeBehind.getFlushedCount(),
+                    writeBehind.getFailedFlushCount(),
+                    writeBehind.getDroppedCount()));
+        }
+
+        CredentialCache cache = CredentialCache.getInstance();
+        if (cache.isEnabled()) {
+            var cacheStats = cache.stats();
+            source.sendMessage(Messages.statsCache(
+                    cache.size(),
+                    cacheStats.hitCount(),
+                    cacheStats.missCount(),
+                    cacheStats.evictionCount()));
+        }
+
+        HashingScheduler hashing = HashingScheduler.getInstance();
+        if (hashing.isRunning()) {
+            source.sendMessage(Messages.statsHashing(
+                    hashing.getActiveCount(),
+                    hashing.getQueuedCount(),
+                    hashing.getCompletedCount(),
+                    hashing.getRejectedCount(),
+                    hashing.getAverageWaitMillis(),
+                    hashing.getMaxWaitMillis()));
+
+            Argon2MemoryPool memory = Argon2MemoryPool.getInstance();
+            source.sendMessage(Messages.statsArgon2Memory(
+                    memory.getInUseKiB(),
+                    memory.getBudgetKiB(),
+                    memory.getReuseCount(),
+                    memory.getAllocationCount(),
+                    memory.getWaitCount()));
+        }
+
+        RemoteHashClient remote = RemoteHashClient.getInstance();
+        if (remote.isEnabled()) {
+            source.sendMessage(Messages.statsRemoteHashing(
+                    remote.getConnectedCount(),
+                    remote.getWorkerCount(),
+                    remote.getInFlightCount(),
+                    remote.getRemoteCount(),
+                    remote.getFallbackCount()));
+        }
+
+        MainThreadQueue mainThread = MainThreadQueue.getInstance();
+        source.sendMessage(Messages.statsMainThread(
+                mainThread.getBacklog(),
+                mainThread.getDrainedCount(),
+                mainThread.getAverageTickMicros(),
+                mainThread.getMaxTickMicros(),
+                mainThread.getOverBudgetTicks()));
+        return 1;
+    }
+
+    /**
+     * Handle /vouch admin calibrate
+     * Benchmarks Argon2 on this host in the background and saves the recommended parameters.
+     */
+    private static int executeCalibrate(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        Argon2Calibrator calibrator = Argon2Calibrator.getInstance();
+
+        if (calibrator.isRunning()) {
+            source.sendMessage(Messages.calibrationRunning());
+            return 0;
+        }
+        if (calibrator.isHashingBusy()) {
+            source.sendMessage(Messages.calibrationBusy());
+            return 0;
+        }
+
+        VouchConfigManager config = VouchConfigManager.getInstance();
+        source.sendMessage(Messages.calibrationStarted(config.getCalibrationTargetP95()));
+        LOGGER.info("Argon2 calibration started by {}", source.getName());
+
+        calibrator.calibrateAsync().thenAccept(result -> {
+            VouchMod.getInstance().runOnMainThread(() -> {
+                var params = result.params();
+                String throughput = String.format("%.1f", result.hashesPerSecond());
+                if (result.targetMet()) {
+                    source.sendMessage(Messages.calibrationResult(params.memoryKiB(), params.iterations(),
+                            params.parallelism(), result.p95Millis(), result.concurrency(), throughput));
+                } else {
+                    source.sendMessage(Messages.calibrationTargetMissed(config.getCalibrationTargetP95(),
+                            params.memoryKiB(), params.iterations(), result.p95Millis(), throughput));
+                }
+            });
+            warnLegacyHashes(source, result.params());
+        }).exceptionally(error -> {
+            LOGGER.error("Argon2 calibration failed", error);
+            VouchMod.getInstance().runOnMainThread(() -> source.sendMessage(Messages.calibrationFailed()));
+            return null;
+        });
+
+        return 1;
+    }
+
+    /**
+     * Tell the admin how many accounts still have legacy hashes, which keep
+     * their pinned crypto.argon2.legacy_* cost until their next login.
+     */
+    private static void warnLegacyHashes(ServerCommandSource source, Argon2Params params) {
+        Argon2Params legacy = Argon2Params.legacyFromConfig();
+        if (legacy.equals(params)) {
+            return;
+        }
+        DatabaseManager.getInstance().countLegacyPasswordHashes().thenAccept(count -> {
+            if (count > 0) {
+                LOGGER.warn("{} accounts still use legacy password hashes ({}); they are upgraded on next login",
+                        count, legacy);
+                VouchMod.getInstance().runOnMainThread(() -> source.sendMessage(
+                        Messages.calibrationLegacy(count, legacy.memoryKiB(), legacy.iterations())));
+            }
+        });
+    }
+
     /**
      * Handle /logout command
      * Invalidates the player's persistent session and disconnects them.
@@ -573,7 +779,7 @@ public final class VouchCommands {
                 player.networkHandler.disconnect(Messages.logoutKick());
                 LOGGER.info("Player {} logged out and disconnected", player.getName().getString());
             });
-        });
+        }).exceptionally(error -> AsyncErrors.report(player, error));
 
         return 1;
     }
@@ -610,7 +816,7 @@ public final class VouchCommands {
 
                         ServerPlayerEntity onlinePlayer = server.getPlayerManager().getPlayer(uuid);
                         if (onlinePlayer != null) {
-                            AuthManager.getInstance().removePlayer(uuid);
+                            AuthManager.getInstance().removePlayer(onlinePlayer);
                             onlinePlayer.networkHandler.disconnect(Messages.notRegistered());
                         }
                     } else {
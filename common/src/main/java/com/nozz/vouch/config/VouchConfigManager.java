@@ -2,12 +2,14 @@ package com.nozz.vouch.config;
 
 import com.electronwill.nightconfig.core.file.CommentedFileConfig;
 import com.nozz.vouch.auth.AuthMode;
+import com.nozz.vouch.crypto.Argon2EngineType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
 
 /**
  * Unified configuration manager for Vouch using TOML format.
@@ -43,6 +45,16 @@ public final class VouchConfigManager {
     private String databasePassword = "";
     private int databasePoolMaxSize = 10;
     private int databasePoolMinIdle = 2;
+    private int databaseExecutorThreads = 0;  // 0 = match pool max_size
+    private int databaseExecutorQueueCapacity = 256;
+    private boolean databaseExecutorVirtualThreads = false;
+    private int databaseQueryTimeout = 10;
+    private boolean databaseCacheEnabled = true;
+    private int databaseCacheMaxSize = 10000;
+    private int databaseCacheTtl = 300;
+    private boolean writeBehindEnabled = true;
+    private int writeBehindFlushInterval = 500;
+    private int writeBehindBatchSize = 100;
 
     private AuthMode authMode = AuthMode.PASSWORD_OPTIONAL_2FA;
     private int loginTimeout = 60;
@@ -56,6 +68,9 @@ public final class VouchConfigManager {
     private boolean sessionBindToIp = true;
     private boolean sessionBindToUuid = true;
     private int sessionCleanupInterval = 300;
+    private int sessionCleanupChunkSize = 500;
+    private int sessionCleanupChunkDelay = 100;
+    private boolean sessionMemoryIndex = false;
 
     private boolean require2FAForOps = false;
     private String totpIssuer = "Vouch";
@@ -65,6 +80,23 @@ public final class VouchConfigManager {
     private int argon2MemoryCost = 15360;  // 15 MiB
     private int argon2Iterations = 2;
     private int argon2Parallelism = 1;
+    private int argon2LegacyMemoryCost = 15360;
+    private int argon2LegacyIterations = 2;
+    private int argon2LegacyParallelism = 1;
+    private int argon2MemoryBudget = 0;  // 0 = memory_cost x hashing threads
+    private Argon2EngineType argon2Engine = Argon2EngineType.SCALAR;
+    private int argon2LaneThreads = 0;  // 0 = CPU cores
+    private int hashingThreads = 0;  // 0 = half the CPU cores, max 4
+    private int hashingQueueCapacity = 64;
+    private int hashingMaxPerIp = 2;
+    private boolean calibrationOnStartup = false;
+    private int calibrationTargetP95 = 250;  // ms
+    private int calibrationConcurrency = 0;  // 0 = hashing threads
+    private int calibrationMaxMemory = 65536;  // 64 MiB
+    private boolean remoteHashingEnabled = false;
+    private String remoteHashingWorkers = "127.0.0.1:7341";
+    private int remoteHashingTimeout = 5000;  // ms
+    private int remoteHashingMaxInFlight = 32;
 
     private String language = "en_us";
 
@@ -105,6 +137,7 @@ public final class VouchConfigManager {
     private boolean showProcessingMessage = true;
     private boolean clearChatOnJoin = false;
     private int welcomeMessagePadding = 2;
+    private int mainThreadBudget = 2000;  // microseconds
 
     private VouchConfigManager(Path configDir) {
         this.configDir = configDir;
@@ -155,7 +188,11 @@ public final class VouchConfigManager {
                         .preserveInsertionOrder()
                         .build();
                 config.load();
+                boolean pinLegacy = !config.contains("crypto.argon2.legacy_memory_cost");
                 loadFromConfig();
+                if (pinLegacy) {
+                    pinLegacyArgon2Params();
+                }
                 LOGGER.info("Configuration loaded from {}", configPath);
             } catch (Exception e) {
                 LOGGER.error("Failed to load config, using defaults", e);
@@ -169,6 +206,11 @@ public final class VouchConfigManager {
 
     /**
      * Save configuration to TOML file with documentation.
+     * 
+     * Rebuilds the whole file from the resolved values, so it is only used to
+     * create a missing or unreadable file: on an existing one it would write
+     * ${ENV:...} placeholders and VOUCH_* overrides out in plain text and drop
+     * manual edits. Changes made at runtime go through {@link #saveValues(Map)}.
      */
     public void save() {
         try {
@@ -187,6 +229,48 @@ public final class VouchConfigManager {
         }
     }
 
+    /**
+     * Write the given keys to the config file, leaving everything else as written.
+     * 
+     * The file is re-read first so edits made since it was loaded are kept.
+     * Falls back to {@link #save()} if there is no file yet.
+     */
+    public synchronized void saveValues(Map<String, ?> values) {
+        if (config == null || !Files.exists(configPath)) {
+            save();
+            return;
+        }
+        try {
+            config.load();
+            values.forEach(config::set);
+            config.save();
+            LOGGER.info("Saved {} to {}", values.keySet(), configPath);
+        } catch (Exception e) {
+            LOGGER.error("Failed to save config", e);
+        }
+    }
+
+    /**
+     * Record the configured Argon2 cost as the cost of legacy (pre-PHC) hashes.
+     * 
+     * Runs on the first load of a config written before the legacy keys
+     * existed, so the values are the ones those hashes were made with. Only
+     * these keys are added; the rest of the file is left as written.
+     */
+    private void pinLegacyArgon2Params() {
+        try {
+            config.set("crypto.argon2.legacy_memory_cost", argon2LegacyMemoryCost);
+            config.setComment("crypto.argon2.legacy_memory_cost", "Cost of hashes stored before the PHC format, recorded on upgrade (do not change)");
+            config.set("crypto.argon2.legacy_iterations", argon2LegacyIterations);
+            config.set("crypto.argon2.legacy_parallelism", argon2LegacyParallelism);
+            config.save();
+            LOGGER.info("Pinned legacy Argon2 parameters (m={},t={},p={})",
+                    argon2LegacyMemoryCost, argon2LegacyIterations, argon2LegacyParallelism);
+        } catch (Exception e) {
+            LOGGER.error("Failed to save legacy Argon2 parameters", e);
+        }
+    }
+
     /**
      * Reload configuration from file.
      */
@@ -209,6 +293,16 @@ public final class VouchConfigManager {
         databasePassword = resolveString("database.password", databasePassword);
         databasePoolMaxSize = resolveInt("database.pool.max_size", databasePoolMaxSize);
         databasePoolMinIdle = resolveInt("database.pool.min_idle", databasePoolMinIdle);
+        databaseExecutorThreads = resolveInt("database.executor.threads", databaseExecutorThreads);
+        databaseExecutorQueueCapacity = resolveInt("database.executor.queue_capacity", databaseExecutorQueueCapacity);
+        databaseExecutorVirtualThreads = resolveBool("database.executor.virtual_threads", databaseExecutorVirtualThreads);
+        databaseQueryTimeout = resolveInt("database.executor.query_timeout", databaseQueryTimeout);
+        databaseCacheEnabled = resolveBool("database.cache.enabled", databaseCacheEnabled);
+        databaseCacheMaxSize = resolveInt("database.cache.max_size", databaseCacheMaxSize);
+        databaseCacheTtl = resolveInt("database.cache.ttl", databaseCacheTtl);
+        writeBehindEnabled = resolveBool("database.write_behind.enabled", writeBehindEnabled);
+        writeBehindFlushInterval = resolveInt("database.write_behind.flush_interval", writeBehindFlushInterval);
+        writeBehindBatchSize = resolveInt("database.write_behind.batch_size", writeBehindBatchSize);
         
         // Authentication
         authMode = AuthMode.fromConfig(resolveString("auth.mode", authMode.getConfigValue()));
@@ -224,6 +318,9 @@ public final class VouchConfigManager {
         sessionBindToIp = resolveBool("session.bind_to_ip", sessionBindToIp);
         sessionBindToUuid = resolveBool("session.bind_to_uuid", sessionBindToUuid);
         sessionCleanupInterval = resolveInt("session.cleanup_interval", sessionCleanupInterval);
+        sessionCleanupChunkSize = resolveInt("session.cleanup_chunk_size", sessionCleanupChunkSize);
+        sessionCleanupChunkDelay = resolveInt("session.cleanup_chunk_delay", sessionCleanupChunkDelay);
+        sessionMemoryIndex = resolveBool("session.memory_index", sessionMemoryIndex);
         
         // 2FA
         require2FAForOps = resolveBool("totp.require_for_ops", require2FAForOps);
@@ -235,6 +332,24 @@ public final class VouchConfigManager {
         argon2MemoryCost = resolveInt("crypto.argon2.memory_cost", argon2MemoryCost);
         argon2Iterations = resolveInt("crypto.argon2.iterations", argon2Iterations);
         argon2Parallelism = resolveInt("crypto.argon2.parallelism", argon2Parallelism);
+        // Default to the current cost: that is what legacy hashes were made with if the keys are new
+        argon2LegacyMemoryCost = resolveInt("crypto.argon2.legacy_memory_cost", argon2MemoryCost);
+        argon2LegacyIterations = resolveInt("crypto.argon2.legacy_iterations", argon2Iterations);
+        argon2LegacyParallelism = resolveInt("crypto.argon2.legacy_parallelism", argon2Parallelism);
+        argon2MemoryBudget = resolveInt("crypto.argon2.memory_budget", argon2MemoryBudget);
+        argon2Engine = Argon2EngineType.fromConfig(resolveString("crypto.argon2.engine", argon2Engine.getConfigValue()));
+        argon2LaneThreads = resolveInt("crypto.argon2.lane_threads", argon2LaneThreads);
+        hashingThreads = resolveInt("crypto.hashing.threads", hashingThreads);
+        hashingQueueCapacity = resolveInt("crypto.hashing.queue_capacity", hashingQueueCapacity);
+        hashingMaxPerIp = resolveInt("crypto.hashing.max_per_ip", hashingMaxPerIp);
+        calibrationOnStartup = resolveBool("crypto.calibration.on_startup", calibrationOnStartup);
+        calibrationTargetP95 = resolveInt("crypto.calibration.target_p95", calibrationTargetP95);
+        calibrationConcurrency = resolveInt("crypto.calibration.concurrency", calibrationConcurrency);
+        calibrationMaxMemory = resolveInt("crypto.calibration.max_memory", calibrationMaxMemory);
+        remoteHashingEnabled = resolveBool("crypto.remote.enabled", remoteHashingEnabled);
+        remoteHashingWorkers = resolveString("crypto.remote.workers", remoteHashingWorkers);
+        remoteHashingTimeout = resolveInt("crypto.remote.timeout", remoteHashingTimeout);
+        remoteHashingMaxInFlight = resolveInt("crypto.remote.max_in_flight", remoteHashingMaxInFlight);
         
         // Language
         language = resolveString("language", language);
@@ -283,6 +398,7 @@ public final class VouchConfigManager {
         showProcessingMessage = resolveBool("misc.show_processing_message", showProcessingMessage);
         clearChatOnJoin = resolveBool("misc.clear_chat_on_join", clearChatOnJoin);
         welcomeMessagePadding = resolveInt("misc.welcome_message_padding", welcomeMessagePadding);
+        mainThreadBudget = resolveInt("misc.main_thread_budget", mainThreadBudget);
     }
 
     private void saveToConfig() {
@@ -325,6 +441,28 @@ public final class VouchConfigManager {
         config.set("database.pool.max_size", databasePoolMaxSize);
         config.setComment("database.pool", "Connection pool settings (for MySQL/PostgreSQL)");
         config.set("database.pool.min_idle", databasePoolMinIdle);
+        config.setComment("database.executor", "Dedicated thread pool for database queries");
+        config.set("database.executor.threads", databaseExecutorThreads);
+        config.setComment("database.executor.threads", "Worker threads (0 = same as pool.max_size)");
+        config.set("database.executor.queue_capacity", databaseExecutorQueueCapacity);
+        config.setComment("database.executor.queue_capacity", "Queued queries before new ones are rejected");
+        config.set("database.executor.virtual_threads", databaseExecutorVirtualThreads);
+        config.setComment("database.executor.virtual_threads", "Run queries on virtual threads instead of a fixed pool");
+        config.set("database.executor.query_timeout", databaseQueryTimeout);
+        config.setComment("database.executor.query_timeout", "Seconds before a database operation is failed");
+        config.setComment("database.cache", "In-memory cache of player credentials");
+        config.set("database.cache.enabled", databaseCacheEnabled);
+        config.setComment("database.cache.enabled", "Cache password hashes and 2FA state between logins");
+        config.set("database.cache.max_size", databaseCacheMaxSize);
+        config.setComment("database.cache.max_size", "Maximum cached players");
+        config.set("database.cache.ttl", databaseCacheTtl);
+        config.setComment("database.cache.ttl", "Seconds before a cached entry is reloaded (lower for multi-server setups)");
+        config.setComment("database.write_behind", "Batch last-login and session writes instead of committing each one");
+        config.set("database.write_behind.enabled", writeBehindEnabled);
+        config.set("database.write_behind.flush_interval", writeBehindFlushInterval);
+        config.setComment("database.write_behind.flush_interval", "Milliseconds between flushes");
+        config.set("database.write_behind.batch_size", writeBehindBatchSize);
+        config.setComment("database.write_behind.batch_size", "Pending writes that trigger an early flush");
         
         // Authentication
         config.setComment("auth", "Authentication settings");
@@ -348,6 +486,12 @@ public final class VouchConfigManager {
         config.set("session.bind_to_ip", sessionBindToIp);
         config.set("session.bind_to_uuid", sessionBindToUuid);
         config.set("session.cleanup_interval", sessionCleanupInterval);
+        config.set("session.cleanup_chunk_size", sessionCleanupChunkSize);
+        config.setComment("session.cleanup_chunk_size", "Expired sessions deleted per statement");
+        config.set("session.cleanup_chunk_delay", sessionCleanupChunkDelay);
+        config.setComment("session.cleanup_chunk_delay", "Milliseconds to pause between cleanup chunks");
+        config.set("session.memory_index", sessionMemoryIndex);
+        config.setComment("session.memory_index", "Answer session checks from memory instead of the database. Single server only: sessions revoked by other servers sharing the database stay valid here until restart");
         
         // TOTP (2FA)
         config.setComment("totp", "Two-Factor Authentication (TOTP) settings");
@@ -367,6 +511,41 @@ public final class VouchConfigManager {
         config.set("crypto.argon2.iterations", argon2Iterations);
         config.setComment("crypto.argon2.iterations", "Time cost / iterations");
         config.set("crypto.argon2.parallelism", argon2Parallelism);
+        config.set("crypto.argon2.legacy_memory_cost", argon2LegacyMemoryCost);
+        config.setComment("crypto.argon2.legacy_memory_cost", "Cost of hashes stored before the PHC format, recorded on upgrade (do not change)");
+        config.set("crypto.argon2.legacy_iterations", argon2LegacyIterations);
+        config.set("crypto.argon2.legacy_parallelism", argon2LegacyParallelism);
+        config.set("crypto.argon2.memory_budget", argon2MemoryBudget);
+        config.setComment("crypto.argon2.memory_budget", "KiB shared by all concurrent hashes; extra hashes wait (0 = memory_cost x hashing threads)");
+        config.set("crypto.argon2.engine", argon2Engine.getConfigValue());
+        config.setComment("crypto.argon2.engine", "Implementation: " + Argon2EngineType.getValidValues() + " (vector needs --add-modules jdk.incubator.vector)");
+        config.set("crypto.argon2.lane_threads", argon2LaneThreads);
+        config.setComment("crypto.argon2.lane_threads", "Threads filling lanes concurrently when parallelism > 1 (0 = CPU cores, 1 = sequential)");
+        config.setComment("crypto.hashing", "Scheduling of password hashing work");
+        config.set("crypto.hashing.threads", hashingThreads);
+        config.setComment("crypto.hashing.threads", "Worker threads (0 = half the CPU cores, max 4)");
+        config.set("crypto.hashing.queue_capacity", hashingQueueCapacity);
+        config.setComment("crypto.hashing.queue_capacity", "Queued hashing jobs before new ones are rejected (server busy)");
+        config.set("crypto.hashing.max_per_ip", hashingMaxPerIp);
+        config.setComment("crypto.hashing.max_per_ip", "Queued or running hashing jobs allowed per IP (0 = unlimited)");
+        config.setComment("crypto.calibration", "Benchmark this host and pick memory_cost/iterations for a latency target");
+        config.set("crypto.calibration.on_startup", calibrationOnStartup);
+        config.setComment("crypto.calibration.on_startup", "Calibrate on next startup, then switch this back off (also: /vouch admin calibrate)");
+        config.set("crypto.calibration.target_p95", calibrationTargetP95);
+        config.setComment("crypto.calibration.target_p95", "Target 95th percentile hash time in milliseconds");
+        config.set("crypto.calibration.concurrency", calibrationConcurrency);
+        config.setComment("crypto.calibration.concurrency", "Hashes run at once while measuring (0 = hashing threads)");
+        config.set("crypto.calibration.max_memory", calibrationMaxMemory);
+        config.setComment("crypto.calibration.max_memory", "Largest memory_cost in KiB the calibration may pick");
+        config.setComment("crypto.remote", "Offload hashing to standalone hash workers (see docs: Remote Hash Workers)");
+        config.set("crypto.remote.enabled", remoteHashingEnabled);
+        config.setComment("crypto.remote.enabled", "Send hashes to the workers below; falls back to local hashing when they are unavailable");
+        config.set("crypto.remote.workers", remoteHashingWorkers);
+        config.setComment("crypto.remote.workers", "Comma-separated host:port or unix:/path addresses (unencrypted: localhost or private network only)");
+        config.set("crypto.remote.timeout", remoteHashingTimeout);
+        config.setComment("crypto.remote.timeout", "Milliseconds to wait for a worker before hashing locally");
+        config.set("crypto.remote.max_in_flight", remoteHashingMaxInFlight);
+        config.setComment("crypto.remote.max_in_flight", "Requests pipelined on one worker connection");
         
         // Language
         config.set("language", language);
@@ -438,6 +617,8 @@ public final class VouchConfigManager {
         config.setComment("misc.clear_chat_on_join", "Clear chat before showing welcome message");
         config.set("misc.welcome_message_padding", welcomeMessagePadding);
         config.setComment("misc.welcome_message_padding", "Empty lines before welcome message");
+        config.set("misc.main_thread_budget", mainThreadBudget);
+        config.setComment("misc.main_thread_budget", "Microseconds per tick spent on Vouch's queued main-thread callbacks; the rest wait for the next tick");
     }
 
     private String resolveString(String path, String defaultValue) {
@@ -513,6 +694,18 @@ public final class VouchConfigManager {
     public String getDatabasePassword() { return databasePassword; }
     public int getDatabasePoolMaxSize() { return databasePoolMaxSize; }
     public int getDatabasePoolMinIdle() { return databasePoolMinIdle; }
+    public int getDatabaseExecutorThreads() {
+        return databaseExecutorThreads > 0 ? databaseExecutorThreads : databasePoolMaxSize;
+    }
+    public int getDatabaseExecutorQueueCapacity() { return databaseExecutorQueueCapacity; }
+    public boolean useDatabaseVirtualThreads() { return databaseExecutorVirtualThreads; }
+    public int getDatabaseQueryTimeout() { return databaseQueryTimeout; }
+    public boolean isDatabaseCacheEnabled() { return databaseCacheEnabled; }
+    public int getDatabaseCacheMaxSize() { return databaseCacheMaxSize; }
+    public int getDatabaseCacheTtl() { return databaseCacheTtl; }
+    public boolean isWriteBehindEnabled() { return writeBehindEnabled; }
+    public int getWriteBehindFlushInterval() { return writeBehindFlushInterval; }
+    public int getWriteBehindBatchSize() { return writeBehindBatchSize; }
 
     // Authentication
     public AuthMode getAuthMode() { return authMode; }
@@ -528,6 +721,9 @@ public final class VouchConfigManager {
     public boolean isSessionBindToIp() { return sessionBindToIp; }
     public boolean isSessionBindToUuid() { return sessionBindToUuid; }
     public int getSessionCleanupInterval() { return sessionCleanupInterval; }
+    public int getSessionCleanupChunkSize() { return sessionCleanupChunkSize; }
+    public int getSessionCleanupChunkDelay() { return sessionCleanupChunkDelay; }
+    public boolean isSessionMemoryIndexEnabled() { return sessionMemoryIndex; }
 
     // 2FA
     public boolean isRequire2FAForOps() { return require2FAForOps; }
@@ -540,6 +736,36 @@ public final class VouchConfigManager {
     public int getArgon2MemoryCost() { return argon2MemoryCost; }
     public int getArgon2Iterations() { return argon2Iterations; }
     public int getArgon2Parallelism() { return argon2Parallelism; }
+    public int getArgon2LegacyMemoryCost() { return argon2LegacyMemoryCost; }
+    public int getArgon2LegacyIterations() { return argon2LegacyIterations; }
+    public int getArgon2LegacyParallelism() { return argon2LegacyParallelism; }
+    public Argon2EngineType getArgon2Engine() { return argon2Engine; }
+    public int getArgon2LaneThreads() {
+        return argon2LaneThreads > 0 ? argon2LaneThreads : Runtime.getRuntime().availableProcessors();
+    }
+    public int getArgon2MemoryBudget() {
+        return argon2MemoryBudget > 0 ? argon2MemoryBudget : argon2MemoryCost * getHashingThreads();
+    }
+    public boolean hasArgon2MemoryBudget() { return argon2MemoryBudget > 0; }
+    public int getHashingThreads() {
+        return hashingThreads > 0 ? hashingThreads : Math.min(4, Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+    public int getHashingQueueCapacity() { return hashingQueueCapacity; }
+    public int getHashingMaxPerIp() { return hashingMaxPerIp; }
+    public boolean isCalibrationOnStartup() { return calibrationOnStartup; }
+    public int getCalibrationTargetP95() { return calibrationTargetP95; }
+    public int getCalibrationConcurrency() {
+        return calibrationConcurrency > 0 ? calibrationConcurrency : getHashingThreads();
+    }
+    public int getCalibrationMaxMemory() { return calibrationMaxMemory; }
+    public boolean isRemoteHashingEnabled() { return remoteHashingEnabled; }
+    public String getRemoteHashingWorkers() { return remoteHashingWorkers; }
+    public int getRemoteHashingTimeout() { return remoteHashingTimeout; }
+    public int getRemoteHashingMaxInFlight() { return remoteHashingMaxInFlight; }
+
+    public void setArgon2MemoryCost(int memoryKiB) { this.argon2MemoryCost = memoryKiB; }
+    public void setArgon2Iterations(int iterations) { this.argon2Iterations = iterations; }
+    public void setCalibrationOnStartup(boolean enabled) { this.calibrationOnStartup = enabled; }
 
     // Language
     public String getLanguage() { return language; }
@@ -588,6 +814,7 @@ public final class VouchConfigManager {
     public boolean showProcessingMessage() { return showProcessingMessage; }
     public boolean clearChatOnJoin() { return clearChatOnJoin; }
     public int getWelcomeMessagePadding() { return welcomeMessagePadding; }
+    public int getMainThreadBudget() { return Math.max(1, mainThreadBudget); }
 
     /**
      * Build JDBC URL based on database type.
@@ -0,0 +1,276 @@
+package com.nozz.vouch.crypto;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Picks Argon2 memory_cost and iterations for this host.
+ *
+ * Hashes are timed with {@link Argon2Hasher#computeHash} while the target
+ * number of them run at once, since a login's latency depends on how many
+ * hashes share the CPU and memory bandwidth. Following RFC 9106, memory is
+ * raised first (binary search at the minimum iteration count), and only
+ * once max_memory fits are iterations raised, until the 95th percentile
+ * would exceed the target.
+ *
+ * Trials use their own memory pool sized for max_memory at the target
+ * concurrency, so the live budget neither throttles them nor gets filled
+ * with odd-sized arenas. When crypto.argon2.memory_budget is set, max_memory
+ * is lowered so the trials fit in it: a cost that does not fit the budget
+ * concurrency times would queue logins anyway. Calibration is refused while
+ * logins are being hashed.
+ *
+ * Configuration values from vouch.toml:
+ * - crypto.calibration.target_p95: Target 95th percentile in milliseconds
+ * - crypto.calibration.concurrency: Hashes run at once (0 = hashing threads)
+ * - crypto.calibration.max_memory: Largest memory_cost in KiB to consider
+ */
+public final class Argon2Calibrator {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/Argon2Calibrator");
+
+    private static final int MIN_MEMORY_KIB = 8192;
+    private static final int MEMORY_STEP_KIB = 1024;
+    private static final int MIN_ITERATIONS = 2;
+    private static final int MAX_ITERATIONS = 10;
+    private static final int WARMUP_ROUNDS = 1;
+    private static final int SAMPLE_ROUNDS = 5;
+
+    private static Argon2Calibrator instance;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private Argon2Calibrator() {
+    }
+
+    public static synchronized Argon2Calibrator getInstance() {
+        if (instance == null) {
+            instance = new Argon2Calibrator();
+        }
+        return instance;
+    }
+
+    /**
+     * Outcome of a calibration run.
+     *
+     * @param params           Recommended parameters
+     * @param p95Millis        Measured 95th percentile with those parameters
+     * @param hashesPerSecond  Measured throughput with those parameters
+     * @param concurrency      Hashes run at once while measuring
+     * @param targetMet        False if even the cheapest parameters missed the target
+     */
+    public record Result(Argon2Params params, long p95Millis, double hashesPerSecond,
+                         int concurrency, boolean targetMet) {}
+
+    private record Trial(Argon2Params params, long p95Millis, double hashesPerSecond) {}
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Whether hashes are running or queued right now. Calibration is refused
+     * then, since its trials would compete with logins for CPU and memory.
+     */
+    public boolean isHashingBusy() {
+        HashingScheduler scheduler = HashingScheduler.getInstance();
+        return scheduler.getActiveCount() + scheduler.getQueuedCount() > 0;
+    }
+
+    /**
+     * Calibrate on a background thread and apply the result.
+     *
+     * The future fails with {@link IllegalStateException} if a calibration is already
+     * running or hashes are in progress.
+     */
+    public CompletableFuture<Result> calibrateAsync() {
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                future.complete(calibrateAndApply());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, "Vouch-Argon2-Calibrator");
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
+    /**
+     * Calibrate on the calling thread, then write the result to the config and save it.
+     *
+     * New hashes use the result immediately; the memory budget is resized on restart.
+     * Only the keys calibration changes are written, so the rest of vouch.toml
+     * (placeholders included) is left as written.
+     *
+     * @throws IllegalStateException if a calibration is already running or hashes are in progress
+     */
+    public Result calibrateAndApply() {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Argon2 calibration is already running");
+        }
+
+        try {
+            if (isHashingBusy()) {
+                throw new IllegalStateException("Hashes are in progress; calibrate when no players are logging in");
+            }
+
+            VouchConfigManager config = VouchConfigManager.getInstance();
+            Result result = calibrate(config.getCalibrationTargetP95(), config.getCalibrationConcurrency(),
+                    config.getCalibrationMaxMemory(), config.getArgon2Parallelism(),
+                    config.hasArgon2MemoryBudget() ? config.getArgon2MemoryBudget() : 0);
+
+            config.setArgon2MemoryCost(result.params().memoryKiB());
+            config.setArgon2Iterations(result.params().iterations());
+            config.setCalibrationOnStartup(false);
+            config.saveValues(Map.of(
+                    "crypto.argon2.memory_cost", result.params().memoryKiB(),
+                    "crypto.argon2.iterations", result.params().iterations(),
+                    "crypto.calibration.on_startup", false));
+
+            if (result.targetMet()) {
+                LOGGER.info("Argon2 calibrated to {}: p95 {}ms at {} concurrent hashes, {} hashes/s",
+                        result.params(), result.p95Millis(), result.concurrency(),
+                        String.format("%.1f", result.hashesPerSecond()));
+            } else {
+                LOGGER.warn("Argon2 cannot meet the {}ms target on this host; using the minimum {} "
+                        + "(p95 {}ms at {} concurrent hashes, {} hashes/s)",
+                        config.getCalibrationTargetP95(), result.params(), result.p95Millis(),
+                        result.concurrency(), String.format("%.1f", result.hashesPerSecond()));
+            }
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * @param memoryBudgetKiB crypto.argon2.memory_budget, or 0 if it is not set
+     */
+    private Result calibrate(int targetMillis, int concurrency, int maxMemoryKiB, int parallelism,
+                             int memoryBudgetKiB) {
+        concurrency = Math.max(1, concurrency);
+        int minMemory = Math.max(MIN_MEMORY_KIB, 8 * parallelism);
+        int maxMemory = Math.max(minMemory, maxMemoryKiB);
+        if (memoryBudgetKiB > 0) {
+            if (memoryBudgetKiB / concurrency < minMemory) {
+                throw new IllegalStateException("crypto.argon2.memory_budget (" + memoryBudgetKiB
+                        + " KiB) cannot fit " + concurrency + " hashes of " + minMemory + " KiB");
+            }
+            maxMemory = Math.min(maxMemory, memoryBudgetKiB / concurrency);
+        }
+        Argon2MemoryPool pool = new Argon2MemoryPool(maxMemory * concurrency);
+
+        LOGGER.info("Calibrating Argon2 (target p95 {}ms, {} concurrent hashes, max memory {} KiB, p={})",
+                targetMillis, concurrency, maxMemory, parallelism);
+        long start = System.currentTimeMillis();
+
+        Trial best = measure(new Argon2Params(minMemory, MIN_ITERATIONS, parallelism), concurrency, pool);
+        if (best.p95Millis() > targetMillis) {
+            return new Result(best.params(), best.p95Millis(), best.hashesPerSecond(), concurrency, false);
+        }
+
+        // Largest memory that fits, in MiB steps
+        int low = minMemory / MEMORY_STEP_KIB;
+        int high = maxMemory / MEMORY_STEP_KIB;
+        while (low < high) {
+            int mid = (low + high + 1) / 2;
+            Trial trial = measure(new Argon2Params(mid * MEMORY_STEP_KIB, MIN_ITERATIONS, parallelism),
+                    concurrency, pool);
+            if (trial.p95Millis() <= targetMillis) {
+                best = trial;
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        // Memory is maxed out; spend what is left of the target on passes
+        if (best.params().memoryKiB() + MEMORY_STEP_KIB > maxMemory) {
+            for (int t = MIN_ITERATIONS + 1; t <= MAX_ITERATIONS; t++) {
+                Trial trial = measure(new Argon2Params(best.params().memoryKiB(), t, parallelism), concurrency, pool);
+                if (trial.p95Millis() > targetMillis) {
+                    break;
+                }
+                best = trial;
+            }
+        }
+
+        LOGGER.debug("Argon2 calibration finished in {}ms", System.currentTimeMillis() - start);
+        return new Result(best.params(), best.p95Millis(), best.hashesPerSecond(), concurrency, true);
+    }
+
+    /**
+     * Time {@link #SAMPLE_ROUNDS} hashes per thread with {@code concurrency} threads hashing at once.
+     */
+    private Trial measure(Argon2Params params, int concurrency, Argon2MemoryPool pool) {
+        long[] latencies = new long[concurrency * SAMPLE_ROUNDS];
+        CountDownLatch ready = new CountDownLatch(concurrency);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        SecureRandom random = new SecureRandom();
+
+        for (int i = 0; i < concurrency; i++) {
+            int worker = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    byte[] salt = new byte[16];
+                    random.nextBytes(salt);
+                    String password = "calibration-" + worker;
+
+                    for (int r = 0; r < WARMUP_ROUNDS; r++) {
+                        Argon2Hasher.computeHash(password, salt, params, pool);
+                    }
+                    ready.countDown();
+                    go.await();
+
+                    for (int r = 0; r < SAMPLE_ROUNDS; r++) {
+                        long t0 = System.nanoTime();
+                        Argon2Hasher.computeHash(password, salt, params, pool);
+                        latencies[worker * SAMPLE_ROUNDS + r] = System.nanoTime() - t0;
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    ready.countDown();
+                } finally {
+                    done.countDown();
+                }
+            }, "Vouch-Argon2-Calibrator-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long elapsed;
+        try {
+            ready.await();
+            long start = System.nanoTime();
+            go.countDown();
+            done.await();
+            elapsed = System.nanoTime() - start;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during Argon2 calibration", e);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Argon2 calibration trial failed", failure.get());
+        }
+
+        Arrays.sort(latencies);
+        long p95Millis = latencies[(int) Math.ceil(latencies.length * 0.95) - 1] / 1_000_000;
+        double hashesPerSecond = latencies.length * 1e9 / elapsed;
+
+        LOGGER.debug("Calibration trial {}: p95 {}ms, {} hashes/s", params, p95Millis,
+                String.format("%.1f", hashesPerSecond));
+        return new Trial(params, p95Millis, hashesPerSecond);
+    }
+}
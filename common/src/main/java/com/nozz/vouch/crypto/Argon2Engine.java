@@ -0,0 +1,462 @@
+package com.nozz.vouch.crypto;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import org.bouncycastle.crypto.digests.Blake2bDigest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-tree Argon2id (RFC 9106, version 0x13) implementation.
+ *
+ * Produces the same output as Bouncy Castle's Argon2BytesGenerator, but
+ * fills a flat long[] arena borrowed from {@link Argon2MemoryPool} instead
+ * of allocating a new block array per hash. Blake2b comes from Bouncy Castle.
+ *
+ * The compression function is chosen by crypto.argon2.engine (see
+ * {@link Argon2EngineType}); every choice produces the same hash.
+ *
+ * With parallelism > 1, lanes are filled concurrently on a shared
+ * fork-join pool (crypto.argon2.lane_threads), joining at every slice
+ * boundary as the spec requires.
+ *
+ * Block layout: block i of the arena starts at index i * 128.
+ */
+public final class Argon2Engine {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/Argon2");
+
+    private static final int VERSION = 0x13;
+    private static final int TYPE_ID = 2;  // Argon2id
+    private static final int SYNC_POINTS = 4;
+    private static final int BLOCK_LONGS = Argon2MemoryPool.BLOCK_LONGS;
+    private static final int BLOCK_BYTES = BLOCK_LONGS * 8;
+    private static final int PREHASH_DIGEST_LENGTH = 64;
+    private static final int PREHASH_SEED_LENGTH = 72;
+
+    private static volatile Argon2EngineType activeType;
+    private static volatile ForkJoinPool lanePool;
+
+    private Argon2Engine() {
+    }
+
+    /**
+     * Get the compression function in use, resolving crypto.argon2.engine on first call.
+     *
+     * @return VECTOR only if requested and available, otherwise SCALAR
+     */
+    public static Argon2EngineType getActiveType() {
+        Argon2EngineType type = activeType;
+        if (type == null) {
+            synchronized (Argon2Engine.class) {
+                type = activeType;
+                if (type == null) {
+                    type = resolveType(VouchConfigManager.getInstance().getArgon2Engine());
+                    activeType = type;
+                }
+            }
+        }
+        return type;
+    }
+
+    private static Argon2EngineType resolveType(Argon2EngineType requested) {
+        if (requested == Argon2EngineType.SCALAR) {
+            return Argon2EngineType.SCALAR;
+        }
+        if (isVectorAvailable()) {
+            LOGGER.info("Using Vector API Argon2 engine");
+            return Argon2EngineType.VECTOR;
+        }
+        LOGGER.warn("Vector Argon2 engine unavailable (start the JVM with --add-modules jdk.incubator.vector "
+                + "on a CPU with 256-bit SIMD), using scalar engine");
+        return Argon2EngineType.SCALAR;
+    }
+
+    private static boolean isVectorAvailable() {
+        // Checked before VectorBlockCompressor is loaded, since it links against the module
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorBlockCompressor.isHardwareAccelerated();
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Get the pool that fills lanes concurrently, or null when lane_threads is 1.
+     */
+    private static ForkJoinPool lanePool() {
+        ForkJoinPool pool = lanePool;
+        if (pool == null) {
+            synchronized (Argon2Engine.class) {
+                pool = lanePool;
+                if (pool == null) {
+                    int threads = VouchConfigManager.getInstance().getArgon2LaneThreads();
+                    if (threads <= 1) {
+                        return null;
+                    }
+                    AtomicInteger counter = new AtomicInteger();
+                    pool = new ForkJoinPool(threads, forkJoinPool -> {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                        thread.setName("Vouch-Argon2-Lane-" + counter.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, null, false);
+                    lanePool = pool;
+                    LOGGER.debug("Argon2 lane pool started ({} threads)", threads);
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static BlockCompressor newCompressor() {
+        return getActiveType() == Argon2EngineType.VECTOR
+                ? new VectorBlockCompressor()
+                : new ScalarBlockCompressor();
+    }
+
+    /**
+     * Compute an Argon2id hash.
+     *
+     * @param password    Password bytes (UTF-8)
+     * @param salt        Salt, at least 8 bytes
+     * @param memoryKiB   Memory cost in KiB
+     * @param iterations  Time cost
+     * @param parallelism Number of lanes
+     * @param hashLength  Output length in bytes
+     */
+    public static byte[] hash(byte[] password, byte[] salt, int memoryKiB, int iterations,
+                              int parallelism, int hashLength) {
+        return hash(password, salt, memoryKiB, iterations, parallelism, hashLength, Argon2MemoryPool.getInstance());
+    }
+
+    /**
+     * Compute an Argon2id hash with memory taken from the given pool.
+     */
+    static byte[] hash(byte[] password, byte[] salt, int memoryKiB, int iterations,
+                       int parallelism, int hashLength, Argon2MemoryPool pool) {
+        if (parallelism < 1 || iterations < 1 || hashLength < 4) {
+            throw new IllegalArgumentException("Invalid Argon2 parameters");
+        }
+
+        // Memory is rounded down to a multiple of 4 * lanes, with at least 2 blocks per segment
+        int blocks = Math.max(memoryKiB, 2 * SYNC_POINTS * parallelism);
+        int segmentLength = blocks / (parallelism * SYNC_POINTS);
+        int laneLength = segmentLength * SYNC_POINTS;
+        blocks = laneLength * parallelism;
+
+        long[] memory = pool.acquire(blocks);
+        try {
+            Instance instance = new Instance(memory, blocks, iterations, parallelism, segmentLength, laneLength);
+            byte[] h0 = initialHash(password, salt, memoryKiB, iterations, parallelism, hashLength);
+            instance.fillFirstBlocks(h0);
+            instance.fillMemoryBlocks();
+            return instance.finish(hashLength);
+        } finally {
+            pool.release(memory);
+        }
+    }
+
+    private static byte[] initialHash(byte[] password, byte[] salt, int memoryKiB, int iterations,
+                                      int parallelism, int hashLength) {
+        Blake2bDigest digest = new Blake2bDigest(PREHASH_DIGEST_LENGTH * 8);
+        updateInt(digest, parallelism);
+        updateInt(digest, hashLength);
+        updateInt(digest, memoryKiB);
+        updateInt(digest, iterations);
+        updateInt(digest, VERSION);
+        updateInt(digest, TYPE_ID);
+        updateInt(digest, password.length);
+        digest.update(password, 0, password.length);
+        updateInt(digest, salt.length);
+        digest.update(salt, 0, salt.length);
+        updateInt(digest, 0);  // secret
+        updateInt(digest, 0);  // associated data
+
+        byte[] h0 = new byte[PREHASH_SEED_LENGTH];
+        digest.doFinal(h0, 0);
+        return h0;
+    }
+
+    /**
+     * Variable-length hash function H' from RFC 9106 section 3.3.
+     */
+    private static void hashLong(byte[] input, byte[] out, int outLength) {
+        byte[] lengthBytes = new byte[4];
+        intToLittleEndian(outLength, lengthBytes, 0);
+
+        if (outLength <= PREHASH_DIGEST_LENGTH) {
+            Blake2bDigest digest = new Blake2bDigest(outLength * 8);
+            digest.update(lengthBytes, 0, 4);
+            digest.update(input, 0, input.length);
+            digest.doFinal(out, 0);
+            return;
+        }
+
+        Blake2bDigest digest = new Blake2bDigest(PREHASH_DIGEST_LENGTH * 8);
+        byte[] v = new byte[PREHASH_DIGEST_LENGTH];
+        digest.update(lengthBytes, 0, 4);
+        digest.update(input, 0, input.length);
+        digest.doFinal(v, 0);
+
+        int halfLength = PREHASH_DIGEST_LENGTH / 2;
+        int pos = 0;
+        System.arraycopy(v, 0, out, pos, halfLength);
+        pos += halfLength;
+
+        int remaining = outLength - halfLength;
+        while (remaining > PREHASH_DIGEST_LENGTH) {
+            digest.update(v, 0, PREHASH_DIGEST_LENGTH);
+            digest.doFinal(v, 0);
+            System.arraycopy(v, 0, out, pos, halfLength);
+            pos += halfLength;
+            remaining -= halfLength;
+        }
+
+        Blake2bDigest last = new Blake2bDigest(remaining * 8);
+        last.update(v, 0, PREHASH_DIGEST_LENGTH);
+        last.doFinal(out, pos);
+    }
+
+    private static void updateInt(Blake2bDigest digest, int value) {
+        byte[] bytes = new byte[4];
+        intToLittleEndian(value, bytes, 0);
+        digest.update(bytes, 0, 4);
+    }
+
+    private static void intToLittleEndian(int value, byte[] out, int offset) {
+        out[offset] = (byte) value;
+        out[offset + 1] = (byte) (value >>> 8);
+        out[offset + 2] = (byte) (value >>> 16);
+        out[offset + 3] = (byte) (value >>> 24);
+    }
+
+    /**
+     * State of a single hash computation over a borrowed arena.
+     */
+    private static final class Instance {
+        private final long[] memory;
+        private final int blocks;
+        private final int passes;
+        private final int lanes;
+        private final int segmentLength;
+        private final int laneLength;
+
+        private final Lane[] laneFillers;
+
+        private Instance(long[] memory, int blocks, int passes, int lanes, int segmentLength, int laneLength) {
+            this.memory = memory;
+            this.blocks = blocks;
+            this.passes = passes;
+            this.lanes = lanes;
+            this.segmentLength = segmentLength;
+            this.laneLength = laneLength;
+            this.laneFillers = new Lane[lanes];
+            for (int lane = 0; lane < lanes; lane++) {
+                laneFillers[lane] = new Lane(lane);
+            }
+        }
+
+        private void fillFirstBlocks(byte[] h0) {
+            byte[] block = new byte[BLOCK_BYTES];
+            for (int lane = 0; lane < lanes; lane++) {
+                intToLittleEndian(lane, h0, PREHASH_DIGEST_LENGTH + 4);
+
+                intToLittleEndian(0, h0, PREHASH_DIGEST_LENGTH);
+                hashLong(h0, block, BLOCK_BYTES);
+                loadBlock(block, lane * laneLength);
+
+                intToLittleEndian(1, h0, PREHASH_DIGEST_LENGTH);
+                hashLong(h0, block, BLOCK_BYTES);
+                loadBlock(block, lane * laneLength + 1);
+            }
+            Arrays.fill(block, (byte) 0);
+            Arrays.fill(h0, (byte) 0);
+        }
+
+        private void loadBlock(byte[] bytes, int index) {
+            int base = index * BLOCK_LONGS;
+            for (int i = 0; i < BLOCK_LONGS; i++) {
+                memory[base + i] = littleEndianToLong(bytes, i * 8);
+            }
+        }
+
+        private void fillMemoryBlocks() {
+            ForkJoinPool pool = lanes > 1 ? lanePool() : null;
+            if (pool != null) {
+                pool.invoke(ForkJoinTask.adapt(this::fillLanesInParallel));
+                return;
+            }
+
+            for (int pass = 0; pass < passes; pass++) {
+                for (int slice = 0; slice < SYNC_POINTS; slice++) {
+                    for (Lane lane : laneFillers) {
+                        lane.fillSegment(pass, slice);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Fill each slice on all lanes concurrently. A segment may reference
+         * blocks from other lanes' earlier slices, so every lane must finish
+         * slice s before any lane starts slice s + 1.
+         */
+        private void fillLanesInParallel() {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(lanes);
+            for (int pass = 0; pass < passes; pass++) {
+                for (int slice = 0; slice < SYNC_POINTS; slice++) {
+                    int currentPass = pass;
+                    int currentSlice = slice;
+                    tasks.clear();
+                    for (Lane lane : laneFillers) {
+                        tasks.add(ForkJoinTask.adapt(() -> lane.fillSegment(currentPass, currentSlice)));
+                    }
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            }
+        }
+
+        /**
+         * Per-lane compression state, so lanes can be filled on different threads.
+         */
+        private final class Lane {
+            private final int lane;
+            private final BlockCompressor compressor = newCompressor();
+
+            // Scratch blocks for data-independent addressing
+            private final long[] zero = new long[BLOCK_LONGS];
+            private final long[] input = new long[BLOCK_LONGS];
+            private final long[] address = new long[BLOCK_LONGS];
+
+            private Lane(int lane) {
+                this.lane = lane;
+            }
+
+            private void fillSegment(int pass, int slice) {
+                boolean dataIndependent = pass == 0 && slice < SYNC_POINTS / 2;
+                if (dataIndependent) {
+                    Arrays.fill(input, 0L);
+                    input[0] = pass;
+                    input[1] = lane;
+                    input[2] = slice;
+                    input[3] = blocks;
+                    input[4] = passes;
+                    input[5] = TYPE_ID;
+                }
+
+                int startIndex = 0;
+                if (pass == 0 && slice == 0) {
+                    startIndex = 2;
+                    if (dataIndependent) {
+                        nextAddresses();
+                    }
+                }
+
+                int currOffset = lane * laneLength + slice * segmentLength + startIndex;
+                int prevOffset = currOffset % laneLength == 0 ? currOffset + laneLength - 1 : currOffset - 1;
+
+                for (int index = startIndex; index < segmentLength; index++, currOffset++, prevOffset++) {
+                    if (currOffset % laneLength == 1) {
+                        prevOffset = currOffset - 1;
+                    }
+
+                    long pseudoRandom;
+                    if (dataIndependent) {
+                        if (index % BLOCK_LONGS == 0) {
+                            nextAddresses();
+                        }
+                        pseudoRandom = address[index % BLOCK_LONGS];
+                    } else {
+                        pseudoRandom = memory[prevOffset * BLOCK_LONGS];
+                    }
+
+                    int refLane = (pass == 0 && slice == 0) ? lane : (int) ((pseudoRandom >>> 32) % lanes);
+                    int refIndex = indexAlpha(pass, slice, index, pseudoRandom & 0xFFFFFFFFL, refLane == lane);
+                    int refOffset = refLane * laneLength + refIndex;
+
+                    compressor.fillBlock(memory, prevOffset * BLOCK_LONGS, memory, refOffset * BLOCK_LONGS,
+                            memory, currOffset * BLOCK_LONGS, pass != 0);
+                }
+            }
+
+            private void nextAddresses() {
+                input[6]++;
+                compressor.fillBlock(zero, 0, input, 0, address, 0, false);
+                compressor.fillBlock(zero, 0, address, 0, address, 0, false);
+            }
+        }
+
+        private int indexAlpha(int pass, int slice, int index, long pseudoRandom, boolean sameLane) {
+            long referenceAreaSize;
+            if (pass == 0) {
+                if (slice == 0) {
+                    referenceAreaSize = index - 1;
+                } else if (sameLane) {
+                    referenceAreaSize = (long) slice * segmentLength + index - 1;
+                } else {
+                    referenceAreaSize = (long) slice * segmentLength + (index == 0 ? -1 : 0);
+                }
+            } else if (sameLane) {
+                referenceAreaSize = laneLength - segmentLength + index - 1;
+            } else {
+                referenceAreaSize = laneLength - segmentLength + (index == 0 ? -1 : 0);
+            }
+
+            long relativePosition = (pseudoRandom * pseudoRandom) >>> 32;
+            relativePosition = referenceAreaSize - 1 - ((referenceAreaSize * relativePosition) >>> 32);
+
+            long startPosition = 0;
+            if (pass != 0 && slice != SYNC_POINTS - 1) {
+                startPosition = (long) (slice + 1) * segmentLength;
+            }
+            return (int) ((startPosition + relativePosition) % laneLength);
+        }
+
+        private byte[] finish(int hashLength) {
+            // XOR of the last block of every lane
+            int lastBase = (laneLength - 1) * BLOCK_LONGS;
+            long[] last = new long[BLOCK_LONGS];
+            System.arraycopy(memory, lastBase, last, 0, BLOCK_LONGS);
+            for (int lane = 1; lane < lanes; lane++) {
+                int base = (lane * laneLength + laneLength - 1) * BLOCK_LONGS;
+                for (int i = 0; i < BLOCK_LONGS; i++) {
+                    last[i] ^= memory[base + i];
+                }
+            }
+
+            byte[] finalBlock = new byte[BLOCK_BYTES];
+            for (int i = 0; i < BLOCK_LONGS; i++) {
+                longToLittleEndian(last[i], finalBlock, i * 8);
+            }
+
+            byte[] out = new byte[hashLength];
+            hashLong(finalBlock, out, hashLength);
+            Arrays.fill(finalBlock, (byte) 0);
+            return out;
+        }
+    }
+
+    private static long littleEndianToLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (bytes[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    private static void longToLittleEndian(long value, byte[] out, int offset) {
+        for (int i = 0; i < 8; i++) {
+            out[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+}
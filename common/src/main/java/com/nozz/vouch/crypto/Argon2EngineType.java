@@ -0,0 +1,66 @@
+package com.nozz.vouch.crypto;
+
+/**
+ * Argon2 compression function implementation.
+ * 
+ * All implementations produce identical hashes; they only differ in speed.
+ */
+public enum Argon2EngineType {
+    /**
+     * Portable pure-Java implementation (default).
+     */
+    SCALAR("scalar"),
+
+    /**
+     * SIMD implementation on the incubating Vector API.
+     * - Needs the JVM flag --add-modules jdk.incubator.vector
+     * - Falls back to SCALAR when the module or 256-bit vectors are unavailable
+     * - Not always faster than SCALAR; benchmark on the target host first
+     */
+    VECTOR("vector");
+
+    private final String configValue;
+
+    Argon2EngineType(String configValue) {
+        this.configValue = configValue;
+    }
+
+    /**
+     * Get the value used in configuration files.
+     */
+    public String getConfigValue() {
+        return configValue;
+    }
+
+    /**
+     * Parse an engine type from a configuration string.
+     * Falls back to SCALAR if invalid.
+     */
+    public static Argon2EngineType fromConfig(String value) {
+        if (value == null || value.isEmpty()) {
+            return SCALAR;
+        }
+
+        String normalized = value.toLowerCase().trim();
+        for (Argon2EngineType type : values()) {
+            if (type.configValue.equals(normalized)) {
+                return type;
+            }
+        }
+        return SCALAR;
+    }
+
+    /**
+     * Get a comma-separated list of valid config values.
+     */
+    public static String getValidValues() {
+        StringBuilder sb = new StringBuilder();
+        for (Argon2EngineType type : values()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(type.configValue);
+        }
+        return sb.toString();
+    }
+}
@@ -1,83 +1,73 @@
 package com.nozz.vouch.crypto;
 
-import com.nozz.vouch.VouchMod;
-import com.nozz.vouch.config.VouchConfigManager;
-import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
-import org.bouncycastle.crypto.params.Argon2Parameters;
+import com.nozz.vouch.crypto.remote.RemoteHashClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.concurrent.CompletableFuture;
 
 /**
- * Argon2id password hasher using Bouncy Castle (pure Java).
+ * Argon2id password hasher (pure Java, see {@link Argon2Engine}).
  * 
  * Default parameters tuned for Minecraft servers (configurable in vouch.toml):
  * - Memory: 15 MiB (15360 KiB) - crypto.argon2.memory_cost
  * - Iterations: 2 - crypto.argon2.iterations
  * - Parallelism: 1 - crypto.argon2.parallelism
  * 
- * All hashing operations are async to prevent TPS impact.
+ * Hashes are stored in the PHC string format, which records the cost
+ * parameters next to the salt:
+ *   $argon2id$v=19$m=15360,t=2,p=1$base64(salt)$base64(hash)
+ * so changing the config does not break existing hashes. Hashes in the
+ * legacy base64(salt)$base64(hash) format are verified with the parameters
+ * pinned in crypto.argon2.legacy_* and reported by {@link #needsRehash(String)}.
+ * 
+ * Hash memory comes from {@link Argon2MemoryPool}, so concurrent hashes
+ * reuse arenas and stay within crypto.argon2.memory_budget. With
+ * crypto.remote.enabled, hashes are computed by {@link RemoteHashClient}
+ * workers first and locally only when no worker answers.
+ * 
+ * All hashing operations are async to prevent TPS impact. Async work is
+ * scheduled through {@link HashingScheduler}, which may reject it when busy.
  */
 public final class Argon2Hasher {
     private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/Argon2");
 
-    // Default Argon2id parameters (used if config unavailable)
-    private static final int DEFAULT_MEMORY_COST = 15360;  // 15 MiB in KiB
-    private static final int DEFAULT_ITERATIONS = 2;
-    private static final int DEFAULT_PARALLELISM = 1;
-    
     private static final int HASH_LENGTH = 32;     // 256 bits
     private static final int SALT_LENGTH = 16;     // 128 bits
 
+    private static final String PHC_PREFIX = "$argon2id$";
+    private static final int ARGON2_VERSION = 19;  // 0x13
+
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
 
     private Argon2Hasher() {
     }
 
     /**
-     * Get memory cost from config or default.
-     */
-    private static int getMemoryCost() {
-        try {
-            return VouchConfigManager.getInstance().getArgon2MemoryCost();
-        } catch (Exception e) {
-            return DEFAULT_MEMORY_COST;
-        }
-    }
-
-    /**
-     * Get iterations from config or default.
-     */
-    private static int getIterations() {
-        try {
-            return VouchConfigManager.getInstance().getArgon2Iterations();
-        } catch (Exception e) {
-            return DEFAULT_ITERATIONS;
-        }
-    }
-
-    /**
-     * Get parallelism from config or default.
+     * Hash a password asynchronously using Argon2id
+     * 
+     * @param password The plain text password
+     * @return CompletableFuture containing the encoded hash (PHC string format)
      */
-    private static int getParallelism() {
-        try {
-            return VouchConfigManager.getInstance().getArgon2Parallelism();
-        } catch (Exception e) {
-            return DEFAULT_PARALLELISM;
-        }
+    public static CompletableFuture<String> hashAsync(String password) {
+        return hashAsync(password, HashPriority.REGISTRATION, null);
     }
 
     /**
-     * Hash a password asynchronously using Argon2id
+     * Hash a password asynchronously with an explicit scheduling class
      * 
      * @param password The plain text password
-     * @return CompletableFuture containing the encoded hash (salt$hash in base64)
+     * @param priority Scheduling class of the job
+     * @param ip Address the hash is computed for (per-IP limit), or null
+     * @return CompletableFuture containing the encoded hash, failed with
+     *         RejectedExecutionException when the scheduler is saturated
      */
-    public static CompletableFuture<String> hashAsync(String password) {
-        return CompletableFuture.supplyAsync(() -> hash(password), VouchMod.getInstance().getAsyncExecutor());
+    public static CompletableFuture<String> hashAsync(String password, HashPriority priority, String ip) {
+        return HashingScheduler.getInstance().submit(priority, ip, () -> hash(password));
     }
 
     /**
@@ -88,7 +78,22 @@ public final class Argon2Hasher {
      * @return CompletableFuture containing true if password matches
      */
     public static CompletableFuture<Boolean> verifyAsync(String password, String storedHash) {
-        return CompletableFuture.supplyAsync(() -> verify(password, storedHash), VouchMod.getInstance().getAsyncExecutor());
+        return verifyAsync(password, storedHash, HashPriority.LOGIN_VERIFY, null);
+    }
+
+    /**
+     * Verify a password asynchronously with an explicit scheduling class
+     * 
+     * @param password The plain text password to verify
+     * @param storedHash The stored hash to verify against
+     * @param priority Scheduling class of the job
+     * @param ip Address the check is done for (per-IP limit), or null
+     * @return CompletableFuture containing true if password matches, failed with
+     *         RejectedExecutionException when the scheduler is saturated
+     */
+    public static CompletableFuture<Boolean> verifyAsync(String password, String storedHash,
+                                                         HashPriority priority, String ip) {
+        return HashingScheduler.getInstance().submit(priority, ip, () -> verify(password, storedHash));
     }
 
     /**
@@ -100,9 +105,9 @@ public final class Argon2Hasher {
         byte[] salt = new byte[SALT_LENGTH];
         SECURE_RANDOM.nextBytes(salt);
 
-        byte[] hash = computeHash(password.toCharArray(), salt);
-
-        String encoded = Base64.getEncoder().encodeToString(salt) + "$" + Base64.getEncoder().encodeToString(hash);
+        Argon2Params params = Argon2Params.fromConfig();
+        byte[] hash = computeHash(password, salt, params, HASH_LENGTH);
+        String encoded = encode(params, salt, hash);
 
         LOGGER.debug("Password hashed in {}ms", System.currentTimeMillis() - start);
         return encoded;
@@ -115,19 +120,16 @@ public final class Argon2Hasher {
         long start = System.currentTimeMillis();
 
         try {
-            String[] parts = storedHash.split("\\$");
-            if (parts.length != 2) {
+            EncodedHash decoded = decode(storedHash);
+            if (decoded == null) {
                 LOGGER.warn("Invalid hash format");
                 return false;
             }
 
-            byte[] salt = Base64.getDecoder().decode(parts[0]);
-            byte[] expectedHash = Base64.getDecoder().decode(parts[1]);
-
-            byte[] computedHash = computeHash(password.toCharArray(), salt);
+            byte[] computedHash = computeHash(password, decoded.salt(), decoded.params(), decoded.hash().length);
 
             // Constant-time comparison to prevent timing attacks
-            boolean matches = constantTimeEquals(expectedHash, computedHash);
+            boolean matches = constantTimeEquals(decoded.hash(), computedHash);
 
             LOGGER.debug("Password verified in {}ms (match={})", System.currentTimeMillis() - start, matches);
             return matches;
@@ -138,23 +140,122 @@ public final class Argon2Hasher {
         }
     }
 
-    private static byte[] computeHash(char[] password, byte[] salt) {
-        Argon2Parameters params = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
-                .withSalt(salt)
-                .withMemoryAsKB(getMemoryCost())
-                .withIterations(getIterations())
-                .withParallelism(getParallelism())
-                .build();
+    /**
+     * Check whether a stored hash should be recomputed with the current settings:
+     * it is in the legacy format, or its parameters or lengths differ from the config.
+     * 
+     * Only call this after a successful verification, with the password at hand.
+     */
+    public static boolean needsRehash(String storedHash) {
+        EncodedHash decoded = decode(storedHash);
+        if (decoded == null || decoded.legacy()) {
+            return true;
+        }
+        return !decoded.params().equals(Argon2Params.fromConfig())
+                || decoded.salt().length != SALT_LENGTH
+                || decoded.hash().length != HASH_LENGTH;
+    }
+
+    /**
+     * Compute a full-length hash with memory from the given pool (used by {@link Argon2Calibrator}).
+     */
+    static byte[] computeHash(String password, byte[] salt, Argon2Params params, Argon2MemoryPool pool) {
+        return computeHash(password, salt, params, HASH_LENGTH, pool);
+    }
 
-        Argon2BytesGenerator generator = new Argon2BytesGenerator();
-        generator.init(params);
+    /**
+     * Compute a hash on a remote worker if one is available, otherwise locally.
+     */
+    private static byte[] computeHash(String password, byte[] salt, Argon2Params params, int hashLength) {
+        RemoteHashClient remote = RemoteHashClient.getInstance();
+        if (remote.isEnabled()) {
+            byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+            try {
+                byte[] hash = remote.compute(passwordBytes, salt, params, hashLength);
+                if (hash != null) {
+                    return hash;
+                }
+            } finally {
+                Arrays.fill(passwordBytes, (byte) 0);
+            }
+        }
+        return computeHash(password, salt, params, hashLength, Argon2MemoryPool.getInstance());
+    }
 
-        byte[] hash = new byte[HASH_LENGTH];
-        generator.generateBytes(password, hash);
+    private static byte[] computeHash(String password, byte[] salt, Argon2Params params, int hashLength,
+                                      Argon2MemoryPool pool) {
+        byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+        try {
+            return Argon2Engine.hash(passwordBytes, salt, params.memoryKiB(), params.iterations(),
+                    params.parallelism(), hashLength, pool);
+        } finally {
+            Arrays.fill(passwordBytes, (byte) 0);
+        }
+    }
 
-        return hash;
+    private static String encode(Argon2Params params, byte[] salt, byte[] hash) {
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PHC_PREFIX + "v=" + ARGON2_VERSION + "$" + params + "$"
+                + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
     }
 
+    /**
+     * Parse a stored hash in either format.
+     * 
+     * @return the decoded hash, or null if the format is not recognised
+     */
+    private static EncodedHash decode(String storedHash) {
+        if (storedHash == null) {
+            return null;
+        }
+
+        try {
+            if (!storedHash.startsWith("$")) {
+                String[] parts = storedHash.split("\\$");
+                if (parts.length != 2) {
+                    return null;
+                }
+                return new EncodedHash(Argon2Params.legacyFromConfig(), Base64.getDecoder().decode(parts[0]),
+                        Base64.getDecoder().decode(parts[1]), true);
+            }
+
+            // "", "argon2id", "v=19", "m=..,t=..,p=..", salt, hash
+            String[] parts = storedHash.split("\\$");
+            if (parts.length != 6 || !storedHash.startsWith(PHC_PREFIX)
+                    || !parts[2].equals("v=" + ARGON2_VERSION)) {
+                return null;
+            }
+
+            int memory = -1;
+            int iterations = -1;
+            int parallelism = -1;
+            for (String param : parts[3].split(",")) {
+                int eq = param.indexOf('=');
+                if (eq <= 0) {
+                    return null;
+                }
+                int value = Integer.parseInt(param.substring(eq + 1));
+                switch (param.substring(0, eq)) {
+                    case "m" -> memory = value;
+                    case "t" -> iterations = value;
+                    case "p" -> parallelism = value;
+                    default -> {
+                        return null;
+                    }
+                }
+            }
+
+            // Missing padding is accepted by the basic decoder
+            return new EncodedHash(new Argon2Params(memory, iterations, parallelism),
+                    Base64.getDecoder().decode(parts[4]), Base64.getDecoder().decode(parts[5]), false);
+
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record EncodedHash(Argon2Params params, byte[] salt, byte[] hash, boolean legacy) {}
+
     /**
      * Constant-time byte array comparison to prevent timing attacks
      */
@@ -0,0 +1,125 @@
+package com.nozz.vouch.crypto;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reusable Argon2 memory arenas with a global memory budget.
+ *
+ * Allocating a fresh memory_cost KiB arena per hash turns every login wave
+ * into a burst of humongous allocations. Arenas are instead handed back to
+ * this pool after use, zeroed, and reused by the next hash with the same
+ * memory cost.
+ *
+ * A fair semaphore holding one permit per KiB caps the memory used by
+ * concurrent hashes, whatever the number of hashing threads. A hash that
+ * does not fit in the remaining budget waits for one to finish.
+ *
+ * Configuration values from vouch.toml:
+ * - crypto.argon2.memory_budget: KiB shared by all running hashes
+ *   (0 = memory_cost x crypto.hashing.threads)
+ */
+public final class Argon2MemoryPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/Argon2Memory");
+
+    /** One Argon2 block is 1 KiB, stored as 128 longs */
+    static final int BLOCK_LONGS = 128;
+
+    private static Argon2MemoryPool instance;
+
+    private final int budgetKiB;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<long[]> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicLong allocations = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+    private final AtomicLong waits = new AtomicLong();
+
+    /**
+     * Create a standalone pool. Hashing uses {@link #getInstance()}; standalone
+     * pools are for benchmarks and calibration trials, so those never hold
+     * memory that logins are waiting for.
+     */
+    Argon2MemoryPool(int budgetKiB) {
+        this.budgetKiB = budgetKiB;
+        this.permits = new Semaphore(budgetKiB, true);
+    }
+
+    public static synchronized Argon2MemoryPool getInstance() {
+        if (instance == null) {
+            VouchConfigManager config = VouchConfigManager.getInstance();
+            int budget = config.getArgon2MemoryBudget();
+            instance = new Argon2MemoryPool(Math.max(budget, config.getArgon2MemoryCost()));
+            LOGGER.debug("Argon2 memory budget: {} KiB", instance.budgetKiB);
+        }
+        return instance;
+    }
+
+    /**
+     * Take an arena of the given number of blocks, waiting until it fits in the budget.
+     *
+     * @throws IllegalStateException if interrupted while waiting
+     */
+    long[] acquire(int blocks) {
+        // A single hash larger than the whole budget still has to run; it just runs alone
+        int kib = Math.min(blocks, budgetKiB);
+        if (!permits.tryAcquire(kib)) {
+            waits.incrementAndGet();
+            try {
+                permits.acquire(kib);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for Argon2 memory", e);
+            }
+        }
+
+        int length = blocks * BLOCK_LONGS;
+        long[] memory;
+        while ((memory = idle.pollFirst()) != null) {
+            if (memory.length == length) {
+                reuses.incrementAndGet();
+                return memory;
+            }
+            // Left over from a previous memory_cost; let the GC have it
+        }
+        allocations.incrementAndGet();
+        return new long[length];
+    }
+
+    /**
+     * Zero an arena and return it to the pool.
+     */
+    void release(long[] memory) {
+        Arrays.fill(memory, 0L);
+        idle.offerFirst(memory);
+        permits.release(Math.min(memory.length / BLOCK_LONGS, budgetKiB));
+    }
+
+    public int getBudgetKiB() {
+        return budgetKiB;
+    }
+
+    public int getInUseKiB() {
+        return budgetKiB - permits.availablePermits();
+    }
+
+    public long getAllocationCount() {
+        return allocations.get();
+    }
+
+    public long getReuseCount() {
+        return reuses.get();
+    }
+
+    /**
+     * Number of hashes that had to wait for memory to be released
+     */
+    public long getWaitCount() {
+        return waits.get();
+    }
+}
@@ -0,0 +1,55 @@
+package com.nozz.vouch.crypto;
+
+import com.nozz.vouch.config.VouchConfigManager;
+
+/**
+ * Argon2id cost parameters.
+ *
+ * @param memoryKiB   Memory cost in KiB
+ * @param iterations  Time cost
+ * @param parallelism Number of lanes
+ */
+public record Argon2Params(int memoryKiB, int iterations, int parallelism) {
+
+    // Used if config unavailable
+    public static final Argon2Params DEFAULT = new Argon2Params(15360, 2, 1);
+
+    public Argon2Params {
+        if (memoryKiB < 8 * parallelism || iterations < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Invalid Argon2 parameters: m=" + memoryKiB
+                    + ", t=" + iterations + ", p=" + parallelism);
+        }
+    }
+
+    /**
+     * Get the parameters configured in crypto.argon2.*, or the defaults if config is unavailable.
+     */
+    public static Argon2Params fromConfig() {
+        try {
+            VouchConfigManager config = VouchConfigManager.getInstance();
+            return new Argon2Params(config.getArgon2MemoryCost(), config.getArgon2Iterations(),
+                    config.getArgon2Parallelism());
+        } catch (Exception e) {
+            return DEFAULT;
+        }
+    }
+
+    /**
+     * Get the parameters of legacy base64(salt)$base64(hash) entries (crypto.argon2.legacy_*).
+     * They are pinned on upgrade, so retuning crypto.argon2.* does not affect them.
+     */
+    public static Argon2Params legacyFromConfig() {
+        try {
+            VouchConfigManager config = VouchConfigManager.getInstance();
+            return new Argon2Params(config.getArgon2LegacyMemoryCost(), config.getArgon2LegacyIterations(),
+                    config.getArgon2LegacyParallelism());
+        } catch (Exception e) {
+            return DEFAULT;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "m=" + memoryKiB + ",t=" + iterations + ",p=" + parallelism;
+    }
+}
@@ -0,0 +1,18 @@
+package com.nozz.vouch.crypto;
+
+/**
+ * Argon2 compression function G over 1 KiB blocks of 128 longs.
+ *
+ * Implementations keep per-instance scratch space, so each hash
+ * computation (and each lane worker) needs its own instance.
+ */
+interface BlockCompressor {
+
+    /**
+     * Compute next = P(x ^ y) ^ x ^ y, additionally XORed with the old
+     * contents of next when {@code withXor} is set (passes after the first).
+     *
+     * The output block may alias either input block.
+     */
+    void fillBlock(long[] x, int xOff, long[] y, int yOff, long[] next, int nextOff, boolean withXor);
+}
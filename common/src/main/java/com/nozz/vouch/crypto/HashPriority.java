@@ -0,0 +1,24 @@
+package com.nozz.vouch.crypto;
+
+/**
+ * Priority classes for password hashing work, highest first.
+ *
+ * Players waiting to log in are served before new registrations, and
+ * background rehashing only runs when nothing else is queued.
+ */
+public enum HashPriority {
+    /** Password check for a player waiting in the pre-auth jail */
+    LOGIN_VERIFY,
+    /** Hashing a new password for /register */
+    REGISTRATION,
+    /** Upgrading a stored hash to the current parameters */
+    REHASH;
+
+    /**
+     * Whether this class may only use part of the queue, so that logins
+     * always find room even while registrations are flooding in.
+     */
+    boolean isDeferrable() {
+        return this == REGISTRATION || this == REHASH;
+    }
+}
@@ -0,0 +1,315 @@
+package com.nozz.vouch.crypto;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission-controlled executor for Argon2 work.
+ *
+ * Argon2 is deliberately expensive, so an unbounded pool lets a burst of
+ * joins (or a bot flood) pile up work and drive every login's latency up.
+ * This scheduler instead:
+ * - Orders queued jobs by {@link HashPriority}, then round-robin across
+ *   IPs, then by arrival
+ * - Caps the queue, keeping part of it free for logins
+ * - Caps how many jobs a single IP may have queued or running
+ * - Fails new jobs immediately with {@link RejectedExecutionException}
+ *   when saturated, so players get a "server busy" reply instead of a hang
+ * - Drops queued jobs whose future is cancelled (the player disconnected)
+ *
+ * Round-robin: a job's round is the number of jobs its IP already had queued
+ * or running when it was submitted. Within a priority class the first job of
+ * every IP runs before the second job of any IP, so one address flooding the
+ * queue cannot push other players' logins back.
+ *
+ * Configuration values from vouch.toml:
+ * - crypto.hashing.threads: Worker threads (0 = half the CPU cores, max 4)
+ * - crypto.hashing.queue_capacity: Queued jobs before new ones are rejected
+ * - crypto.hashing.max_per_ip: Queued or running jobs allowed per IP
+ */
+public final class HashingScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/HashingScheduler");
+
+    private static HashingScheduler instance;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final Map<String, Integer> perIp = new ConcurrentHashMap<>();
+
+    private volatile ThreadPoolExecutor executor;
+    private int threads;
+    private int queueCapacity;
+    private int maxPerIp;
+
+    private HashingScheduler() {
+    }
+
+    public static synchronized HashingScheduler getInstance() {
+        if (instance == null) {
+            instance = new HashingScheduler();
+        }
+        return instance;
+    }
+
+    /**
+     * Start the worker pool using the current configuration.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        VouchConfigManager config = VouchConfigManager.getInstance();
+        this.threads = Math.max(1, config.getHashingThreads());
+        this.queueCapacity = Math.max(1, config.getHashingQueueCapacity());
+        this.maxPerIp = config.getHashingMaxPerIp();
+
+        AtomicInteger counter = new AtomicInteger();
+        // Jobs go through execute() (never submit()) so the queue sees HashJob and can order them
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "Vouch-Hash-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        LOGGER.info("Hashing scheduler started (threads={}, queue={}, max_per_ip={})",
+                threads, queueCapacity, maxPerIp > 0 ? maxPerIp : "unlimited");
+    }
+
+    /**
+     * Run a hashing job asynchronously.
+     *
+     * The returned future fails with {@link RejectedExecutionException} when the
+     * queue is saturated for this priority or the IP already has too many jobs.
+     *
+     * @param priority Scheduling class of the job
+     * @param ip       Address the job is done for, or null for server-initiated work
+     * @param task     The hashing work
+     */
+    public <T> CompletableFuture<T> submit(HashPriority priority, String ip, Supplier<T> task) {
+        ThreadPoolExecutor exec = executor;
+        if (exec == null) {
+            return reject("Hashing scheduler is not running");
+        }
+
+        int limit = priority.isDeferrable() ? Math.max(1, queueCapacity / 2) : queueCapacity;
+        if (!reserveQueueSlot(limit)) {
+            LOGGER.warn("Hashing queue saturated ({} queued), rejecting {} job", queued.get(), priority);
+            return reject("Hashing queue is full");
+        }
+
+        int round = 0;
+        if (ip != null) {
+            round = acquireIp(ip);
+            if (round < 0) {
+                queued.decrementAndGet();
+                LOGGER.debug("Too many hashing jobs for {}, rejecting {} job", ip, priority);
+                return reject("Too many hashing jobs for this address");
+            }
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        HashJob<T> job = new HashJob<>(priority, round, sequence.getAndIncrement(), ip, task, future);
+
+        try {
+            exec.execute(job);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            releaseIp(ip);
+            return reject(e.getMessage());
+        }
+
+        // A cancelled job leaves the queue at once instead of holding a slot until a worker reaches it
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled() && exec.remove(job)) {
+                queued.decrementAndGet();
+                releaseIp(job.ip);
+            }
+        });
+        return future;
+    }
+
+    private boolean reserveQueueSlot(int limit) {
+        int current;
+        do {
+            current = queued.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Count a job against its IP.
+     *
+     * @return how many jobs the IP already had queued or running (the job's
+     *         round), or -1 if it is at crypto.hashing.max_per_ip
+     */
+    private int acquireIp(String ip) {
+        int[] round = new int[1];
+        perIp.compute(ip, (key, current) -> {
+            int count = current == null ? 0 : current;
+            if (maxPerIp > 0 && count >= maxPerIp) {
+                round[0] = -1;
+                return current;
+            }
+            round[0] = count;
+            return count + 1;
+        });
+        return round[0];
+    }
+
+    private <T> CompletableFuture<T> reject(String reason) {
+        rejected.incrementAndGet();
+        return CompletableFuture.failedFuture(new RejectedExecutionException(reason));
+    }
+
+    private void releaseIp(String ip) {
+        if (ip != null) {
+            perIp.computeIfPresent(ip, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Stop accepting work and wait for running jobs to finish.
+     * Queued jobs are failed so their callers are not left waiting.
+     */
+    public synchronized void shutdown(long timeout, TimeUnit unit) {
+        ThreadPoolExecutor exec = executor;
+        if (exec == null) {
+            return;
+        }
+        executor = null;
+
+        for (Runnable pending : exec.getQueue().toArray(new Runnable[0])) {
+            if (exec.remove(pending) && pending instanceof HashJob<?> job) {
+                queued.decrementAndGet();
+                releaseIp(job.ip);
+                job.future.completeExceptionally(new RejectedExecutionException("Server is shutting down"));
+            }
+        }
+
+        exec.shutdown();
+        try {
+            if (!exec.awaitTermination(timeout, unit)) {
+                LOGGER.warn("Hashing scheduler did not terminate in time, forcing shutdown...");
+                exec.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            exec.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        perIp.clear();
+        LOGGER.info("Hashing scheduler stopped");
+    }
+
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Average time jobs spent queued before a worker picked them up
+     */
+    public long getAverageWaitMillis() {
+        long done = completed.get();
+        return done == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / done);
+    }
+
+    /**
+     * Longest time a job spent queued since startup
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    private final class HashJob<T> implements Runnable, Comparable<HashJob<?>> {
+        private final HashPriority priority;
+        private final int round;
+        private final long seq;
+        private final String ip;
+        private final Supplier<T> task;
+        private final CompletableFuture<T> future;
+        private final long enqueuedAt = System.nanoTime();
+
+        private HashJob(HashPriority priority, int round, long seq, String ip,
+                        Supplier<T> task, CompletableFuture<T> future) {
+            this.priority = priority;
+            this.round = round;
+            this.seq = seq;
+            this.ip = ip;
+            this.task = task;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            queued.decrementAndGet();
+            if (future.isDone()) {
+                // Cancelled while a worker was already taking it off the queue
+                releaseIp(ip);
+                return;
+            }
+            recordWait(System.nanoTime() - enqueuedAt);
+            active.incrementAndGet();
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                active.decrementAndGet();
+                completed.incrementAndGet();
+                releaseIp(ip);
+            }
+        }
+
+        @Override
+        public int compareTo(HashJob<?> other) {
+            int byPriority = priority.compareTo(other.priority);
+            if (byPriority != 0) {
+                return byPriority;
+            }
+            int byRound = Integer.compare(round, other.round);
+            return byRound != 0 ? byRound : Long.compare(seq, other.seq);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.nozz.vouch.crypto;
+
+/**
+ * Portable BlaMka compression function, one 64-bit word at a time.
+ */
+final class ScalarBlockCompressor implements BlockCompressor {
+    private static final int BLOCK_LONGS = Argon2MemoryPool.BLOCK_LONGS;
+
+    private final long[] r = new long[BLOCK_LONGS];
+    private final long[] z = new long[BLOCK_LONGS];
+
+    @Override
+    public void fillBlock(long[] x, int xOff, long[] y, int yOff, long[] next, int nextOff, boolean withXor) {
+        for (int i = 0; i < BLOCK_LONGS; i++) {
+            long v = x[xOff + i] ^ y[yOff + i];
+            r[i] = v;
+            z[i] = withXor ? v ^ next[nextOff + i] : v;
+        }
+
+        // Rows: 8 groups of 16 consecutive words
+        for (int i = 0; i < 8; i++) {
+            int b = 16 * i;
+            roundNoMsg(b, b + 1, b + 2, b + 3, b + 4, b + 5, b + 6, b + 7,
+                    b + 8, b + 9, b + 10, b + 11, b + 12, b + 13, b + 14, b + 15);
+        }
+        // Columns: 8 groups of word pairs, one pair per row
+        for (int i = 0; i < 8; i++) {
+            int b = 2 * i;
+            roundNoMsg(b, b + 1, b + 16, b + 17, b + 32, b + 33, b + 48, b + 49,
+                    b + 64, b + 65, b + 80, b + 81, b + 96, b + 97, b + 112, b + 113);
+        }
+
+        for (int i = 0; i < BLOCK_LONGS; i++) {
+            next[nextOff + i] = z[i] ^ r[i];
+        }
+    }
+
+    private void roundNoMsg(int v0, int v1, int v2, int v3, int v4, int v5, int v6, int v7,
+                            int v8, int v9, int v10, int v11, int v12, int v13, int v14, int v15) {
+        gb(v0, v4, v8, v12);
+        gb(v1, v5, v9, v13);
+        gb(v2, v6, v10, v14);
+        gb(v3, v7, v11, v15);
+        gb(v0, v5, v10, v15);
+        gb(v1, v6, v11, v12);
+        gb(v2, v7, v8, v13);
+        gb(v3, v4, v9, v14);
+    }
+
+    private void gb(int a, int b, int c, int d) {
+        long[] v = r;
+        v[a] = fBlaMka(v[a], v[b]);
+        v[d] = Long.rotateRight(v[d] ^ v[a], 32);
+        v[c] = fBlaMka(v[c], v[d]);
+        v[b] = Long.rotateRight(v[b] ^ v[c], 24);
+        v[a] = fBlaMka(v[a], v[b]);
+        v[d] = Long.rotateRight(v[d] ^ v[a], 16);
+        v[c] = fBlaMka(v[c], v[d]);
+        v[b] = Long.rotateRight(v[b] ^ v[c], 63);
+    }
+
+    private static long fBlaMka(long x, long y) {
+        return x + y + 2 * (x & 0xFFFFFFFFL) * (y & 0xFFFFFFFFL);
+    }
+}
@@ -4,9 +4,8 @@ import com.nozz.vouch.config.VouchConfigManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.security.InvalidKeyException;
+import java.security.DigestException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 
@@ -16,6 +15,11 @@ import java.security.SecureRandom;
  * Generates and validates 6-digit codes for 2FA authentication.
  * Compatible with Google Authenticator, Authy, Aegis, etc.
  * 
+ * Verification against a {@link TOTPKey} does not allocate: the secret is
+ * decoded and the HMAC pads are derived once, and each thread reuses one
+ * SHA-1 digest and its buffers. HMAC is computed directly (RFC 2104)
+ * because javax.crypto.Mac allocates its result on every doFinal.
+ * 
  * Configuration values from vouch.toml:
  * - totp.window_size: Time window tolerance (default: 1)
  * - totp.time_step: Time step in seconds (default: 30)
@@ -23,9 +27,12 @@ import java.security.SecureRandom;
 public final class TOTPEngine {
     private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/TOTP");
 
-    private static final String HMAC_ALGORITHM = "HmacSHA1";
+    private static final String HASH_ALGORITHM = "SHA-1";
     private static final int SECRET_LENGTH = 20;  // 160 bits for SHA1
     private static final int CODE_DIGITS = 6;
+    private static final int CODE_MODULUS = 1_000_000;  // 10^CODE_DIGITS
+    private static final int HMAC_LENGTH = 20;  // SHA1 output
+    private static final int HMAC_BLOCK_LENGTH = 64;  // SHA1 block size
     
     // Default values (used if config not available)
     private static final int DEFAULT_TIME_STEP = 30;
@@ -34,6 +41,9 @@ public final class TOTPEngine {
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
     private static final String BASE32_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567";
 
+    // One digest and scratch buffers per thread
+    private static final ThreadLocal<HmacState> HMAC = ThreadLocal.withInitial(HmacState::new);
+
     private TOTPEngine() {
     }
 
@@ -105,13 +115,38 @@ public final class TOTPEngine {
      * Generate a TOTP code for a specific time
      */
     public static String generateCode(String secret, long timeSeconds) {
-        int timeStep = getTimeStep();
-        long counter = timeSeconds / timeStep;
-        byte[] secretBytes = base32Decode(secret);
-        int code = generateOTP(secretBytes, counter);
+        long counter = timeSeconds / getTimeStep();
+        int code = generateOTP(HMAC.get(), decodeKey(secret), counter);
         return String.format("%0" + CODE_DIGITS + "d", code);
     }
 
+    /**
+     * Decode a Base32 secret into a reusable key.
+     * Callers that verify repeatedly for the same player should keep the result.
+     */
+    public static TOTPKey decodeKey(String secret) {
+        byte[] key = base32Decode(secret);
+        if (key.length > HMAC_BLOCK_LENGTH) {
+            key = HMAC.get().digest.digest(key);
+        }
+
+        byte[] innerPad = new byte[HMAC_BLOCK_LENGTH];
+        byte[] outerPad = new byte[HMAC_BLOCK_LENGTH];
+        for (int i = 0; i < HMAC_BLOCK_LENGTH; i++) {
+            byte b = i < key.length ? key[i] : 0;
+            innerPad[i] = (byte) (b ^ 0x36);
+            outerPad[i] = (byte) (b ^ 0x5c);
+        }
+        return new TOTPKey(secret, innerPad, outerPad);
+    }
+
+    /**
+     * Get the time step counter for the current time
+     */
+    public static long currentCounter() {
+        return System.currentTimeMillis() / 1000 / getTimeStep();
+    }
+
     /**
      * Verify a TOTP code with time window tolerance
      * 
@@ -120,60 +155,132 @@ public final class TOTPEngine {
      * @return true if code is valid within the time window
      */
     public static boolean verifyCode(String secret, String code) {
-        if (code == null || code.length() != CODE_DIGITS) {
+        return verifyCode(decodeKey(secret), code);
+    }
+
+    /**
+     * Verify a TOTP code with time window tolerance, using an already decoded key.
+     * Does not allocate.
+     * 
+     * @param key Decoded secret
+     * @param code The 6-digit code to verify
+     * @return true if code is valid within the time window
+     */
+    public static boolean verifyCode(TOTPKey key, String code) {
+        int inputCode = parseCode(code);
+        if (inputCode < 0) {
             return false;
         }
 
-        try {
-            int inputCode = Integer.parseInt(code);
-            byte[] secretBytes = base32Decode(secret);
-            long currentTime = System.currentTimeMillis() / 1000;
-            int timeStep = getTimeStep();
-            int windowSize = getWindowSize();
-            long currentCounter = currentTime / timeStep;
-
-            // Check current time step and ±windowSize steps
-            for (int i = -windowSize; i <= windowSize; i++) {
-                int expectedCode = generateOTP(secretBytes, currentCounter + i);
-                if (expectedCode == inputCode) {
-                    LOGGER.debug("TOTP code verified (offset={})", i);
-                    return true;
-                }
+        int windowSize = getWindowSize();
+        long currentCounter = currentCounter();
+        HmacState state = HMAC.get();
+
+        // Current step first, then outwards, since that is where a valid code almost always is
+        for (int i = 0; i <= windowSize; i++) {
+            if (generateOTP(state, key, currentCounter - i) == inputCode) {
+                LOGGER.debug("TOTP code verified (offset={})", -i);
+                return true;
             }
+            if (i > 0 && generateOTP(state, key, currentCounter + i) == inputCode) {
+                LOGGER.debug("TOTP code verified (offset={})", i);
+                return true;
+            }
+        }
 
-            LOGGER.debug("TOTP code verification failed");
-            return false;
+        LOGGER.debug("TOTP code verification failed");
+        return false;
+    }
 
-        } catch (NumberFormatException e) {
-            LOGGER.warn("Invalid TOTP code format: {}", code);
-            return false;
+    /**
+     * Check one code against several time step counters.
+     * Does not allocate.
+     * 
+     * @param key Decoded secret
+     * @param code The 6-digit code to verify
+     * @param counters Time step counters to try, in order
+     * @return index of the first matching counter, or -1 if none match or the code is malformed
+     */
+    public static int matchCounter(TOTPKey key, String code, long... counters) {
+        int inputCode = parseCode(code);
+        if (inputCode < 0) {
+            return -1;
         }
-    }
 
-    private static int generateOTP(byte[] secret, long counter) {
-        try {
-            byte[] counterBytes = new byte[8];
-            for (int i = 7; i >= 0; i--) {
-                counterBytes[i] = (byte) (counter & 0xff);
-                counter >>= 8;
+        HmacState state = HMAC.get();
+        for (int i = 0; i < counters.length; i++) {
+            if (generateOTP(state, key, counters[i]) == inputCode) {
+                return i;
             }
+        }
+        return -1;
+    }
 
-            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
-            byte[] hash = mac.doFinal(counterBytes);
+    /**
+     * Parse a code of exactly CODE_DIGITS decimal digits.
+     * 
+     * @return the code, or -1 if malformed
+     */
+    private static int parseCode(String code) {
+        if (code == null || code.length() != CODE_DIGITS) {
+            return -1;
+        }
 
-            int offset = hash[hash.length - 1] & 0x0f;
-            int binary = ((hash[offset] & 0x7f) << 24)
-                    | ((hash[offset + 1] & 0xff) << 16)
-                    | ((hash[offset + 2] & 0xff) << 8)
-                    | (hash[offset + 3] & 0xff);
+        int value = 0;
+        for (int i = 0; i < CODE_DIGITS; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                LOGGER.warn("Invalid TOTP code format: {}", code);
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
 
-            return binary % (int) Math.pow(10, CODE_DIGITS);
+    private static int generateOTP(HmacState state, TOTPKey key, long counter) {
+        byte[] counterBytes = state.counter;
+        for (int i = 7; i >= 0; i--) {
+            counterBytes[i] = (byte) (counter & 0xff);
+            counter >>= 8;
+        }
 
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+        // HMAC(K, m) = H((K ^ opad) || H((K ^ ipad) || m))
+        MessageDigest digest = state.digest;
+        byte[] hash = state.hash;
+        try {
+            digest.update(key.innerPad());
+            digest.update(counterBytes);
+            digest.digest(hash, 0, HMAC_LENGTH);
+            digest.update(key.outerPad());
+            digest.update(hash);
+            digest.digest(hash, 0, HMAC_LENGTH);
+        } catch (DigestException e) {
             LOGGER.error("Failed to generate OTP", e);
             throw new RuntimeException("TOTP generation failed", e);
         }
+
+        int offset = hash[hash.length - 1] & 0x0f;
+        int binary = ((hash[offset] & 0x7f) << 24)
+                | ((hash[offset + 1] & 0xff) << 16)
+                | ((hash[offset + 2] & 0xff) << 8)
+                | (hash[offset + 3] & 0xff);
+
+        return binary % CODE_MODULUS;
+    }
+
+    private static final class HmacState {
+        final MessageDigest digest;
+        final byte[] counter = new byte[8];
+        final byte[] hash = new byte[HMAC_LENGTH];
+
+        HmacState() {
+            try {
+                digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("TOTP generation failed", e);
+            }
+        }
     }
 
     // Base32 encoding/decoding (RFC 4648)
@@ -0,0 +1,35 @@
+package com.nozz.vouch.crypto;
+
+/**
+ * A decoded TOTP secret, ready to key an HMAC.
+ *
+ * Decoding the Base32 secret and deriving the HMAC pads is done once, so
+ * repeated verifications (a whole window, or every attempt in a session)
+ * skip it. Obtain one with {@link TOTPEngine#decodeKey(String)}.
+ */
+public final class TOTPKey {
+    private final String secret;
+    private final byte[] innerPad;
+    private final byte[] outerPad;
+
+    TOTPKey(String secret, byte[] innerPad, byte[] outerPad) {
+        this.secret = secret;
+        this.innerPad = innerPad;
+        this.outerPad = outerPad;
+    }
+
+    /**
+     * Check whether this key was decoded from the given Base32 secret.
+     */
+    public boolean matches(String secret) {
+        return this.secret.equals(secret);
+    }
+
+    byte[] innerPad() {
+        return innerPad;
+    }
+
+    byte[] outerPad() {
+        return outerPad;
+    }
+}
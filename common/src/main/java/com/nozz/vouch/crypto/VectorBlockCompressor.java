@@ -0,0 +1,125 @@
+package com.nozz.vouch.crypto;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * BlaMka compression function on the incubating Vector API.
+ *
+ * Each Blake2b round works on four 256-bit vectors (a, b, c, d) holding the
+ * 16 words of one group, so the four G calls of a half-round run as one
+ * vector G. Diagonals are formed by rotating the lanes of b, c and d.
+ * Row groups are contiguous; column groups are first copied into a
+ * scratch block so they can be loaded the same way.
+ *
+ * This class links against jdk.incubator.vector, so it must only be touched
+ * once the module is known to be in the boot layer (see {@link Argon2Engine}).
+ */
+final class VectorBlockCompressor implements BlockCompressor {
+    private static final int BLOCK_LONGS = Argon2MemoryPool.BLOCK_LONGS;
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_256;
+    private static final long LOW_32 = 0xFFFFFFFFL;
+
+    private static final VectorShuffle<Long> ROTATE_1 = VectorShuffle.fromValues(SPECIES, 1, 2, 3, 0);
+    private static final VectorShuffle<Long> ROTATE_2 = VectorShuffle.fromValues(SPECIES, 2, 3, 0, 1);
+    private static final VectorShuffle<Long> ROTATE_3 = VectorShuffle.fromValues(SPECIES, 3, 0, 1, 2);
+
+    private final long[] r = new long[BLOCK_LONGS];
+    private final long[] t = new long[BLOCK_LONGS];
+
+    /**
+     * Check that the platform has at least 256-bit vector registers.
+     * Without them the Vector API falls back to a much slower Java path.
+     */
+    static boolean isHardwareAccelerated() {
+        return LongVector.SPECIES_PREFERRED.vectorBitSize() >= SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public void fillBlock(long[] x, int xOff, long[] y, int yOff, long[] next, int nextOff, boolean withXor) {
+        for (int i = 0; i < BLOCK_LONGS; i += SPECIES.length()) {
+            LongVector.fromArray(SPECIES, x, xOff + i)
+                    .lanewise(VectorOperators.XOR, LongVector.fromArray(SPECIES, y, yOff + i))
+                    .intoArray(r, i);
+        }
+
+        for (int i = 0; i < 8; i++) {
+            round(r, 16 * i);
+        }
+
+        // Copy column groups into contiguous runs of 16 words so they load like rows
+        for (int i = 0; i < 8; i++) {
+            for (int k = 0; k < 8; k++) {
+                t[16 * i + 2 * k] = r[2 * i + 16 * k];
+                t[16 * i + 2 * k + 1] = r[2 * i + 16 * k + 1];
+            }
+        }
+        for (int i = 0; i < 8; i++) {
+            round(t, 16 * i);
+        }
+        for (int i = 0; i < 8; i++) {
+            for (int k = 0; k < 8; k++) {
+                r[2 * i + 16 * k] = t[16 * i + 2 * k];
+                r[2 * i + 16 * k + 1] = t[16 * i + 2 * k + 1];
+            }
+        }
+
+        // next = P(R) ^ R (^ old next); R is recomputed rather than kept in a second scratch block
+        for (int i = 0; i < BLOCK_LONGS; i += SPECIES.length()) {
+            LongVector v = LongVector.fromArray(SPECIES, x, xOff + i)
+                    .lanewise(VectorOperators.XOR, LongVector.fromArray(SPECIES, y, yOff + i))
+                    .lanewise(VectorOperators.XOR, LongVector.fromArray(SPECIES, r, i));
+            if (withXor) {
+                v = v.lanewise(VectorOperators.XOR, LongVector.fromArray(SPECIES, next, nextOff + i));
+            }
+            v.intoArray(next, nextOff + i);
+        }
+    }
+
+    /**
+     * One Blake2b round over 16 consecutive words of the given block.
+     */
+    private static void round(long[] v, int base) {
+        LongVector a = LongVector.fromArray(SPECIES, v, base);
+        LongVector b = LongVector.fromArray(SPECIES, v, base + 4);
+        LongVector c = LongVector.fromArray(SPECIES, v, base + 8);
+        LongVector d = LongVector.fromArray(SPECIES, v, base + 12);
+
+        // Columns of the 4x4 state
+        a = fBlaMka(a, b);
+        d = d.lanewise(VectorOperators.XOR, a).lanewise(VectorOperators.ROR, 32);
+        c = fBlaMka(c, d);
+        b = b.lanewise(VectorOperators.XOR, c).lanewise(VectorOperators.ROR, 24);
+        a = fBlaMka(a, b);
+        d = d.lanewise(VectorOperators.XOR, a).lanewise(VectorOperators.ROR, 16);
+        c = fBlaMka(c, d);
+        b = b.lanewise(VectorOperators.XOR, c).lanewise(VectorOperators.ROR, 63);
+
+        // Diagonals
+        b = b.rearrange(ROTATE_1);
+        c = c.rearrange(ROTATE_2);
+        d = d.rearrange(ROTATE_3);
+
+        a = fBlaMka(a, b);
+        d = d.lanewise(VectorOperators.XOR, a).lanewise(VectorOperators.ROR, 32);
+        c = fBlaMka(c, d);
+        b = b.lanewise(VectorOperators.XOR, c).lanewise(VectorOperators.ROR, 24);
+        a = fBlaMka(a, b);
+        d = d.lanewise(VectorOperators.XOR, a).lanewise(VectorOperators.ROR, 16);
+        c = fBlaMka(c, d);
+        b = b.lanewise(VectorOperators.XOR, c).lanewise(VectorOperators.ROR, 63);
+
+        a.intoArray(v, base);
+        b.rearrange(ROTATE_3).intoArray(v, base + 4);
+        c.rearrange(ROTATE_2).intoArray(v, base + 8);
+        d.rearrange(ROTATE_1).intoArray(v, base + 12);
+    }
+
+    private static LongVector fBlaMka(LongVector x, LongVector y) {
+        LongVector product = x.lanewise(VectorOperators.AND, LOW_32)
+                .mul(y.lanewise(VectorOperators.AND, LOW_32));
+        return x.add(y).add(product.lanewise(VectorOperators.LSHL, 1));
+    }
+}
@@ -0,0 +1,216 @@
+package com.nozz.vouch.crypto.remote;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import com.nozz.vouch.crypto.Argon2Engine;
+import com.nozz.vouch.crypto.Argon2MemoryPool;
+import com.nozz.vouch.crypto.Argon2Params;
+import com.nozz.vouch.crypto.remote.HashWorkerProtocol.ComputeRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Standalone hash worker: computes Argon2id hashes for Vouch servers.
+ *
+ * Run it from the mod jar (slf4j must be on the classpath):
+ *   java -cp vouch.jar:slf4j-api.jar com.nozz.vouch.crypto.remote.HashWorkerMain
+ *        [--listen host:port | --listen unix:/path/to/socket] [--config dir]
+ *
+ * The worker reads crypto.hashing.threads, crypto.hashing.queue_capacity and
+ * crypto.argon2.memory_budget from the vouch.toml under the config
+ * directory. Requests beyond the queue are answered as busy, and the server
+ * hashes those itself.
+ *
+ * The protocol has no authentication or encryption: listen on localhost, a
+ * UNIX socket or a private network only.
+ */
+public final class HashWorkerMain {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/HashWorker");
+
+    private static final String DEFAULT_LISTEN = "127.0.0.1:" + HashWorkerProtocol.DEFAULT_PORT;
+    private static final int MIN_SALT_LENGTH = 8;
+    private static final int MAX_HASH_LENGTH = 1024;
+
+    private final ThreadPoolExecutor executor;
+    private final int maxMemoryKiB;
+    private final AtomicInteger connectionIds = new AtomicInteger();
+
+    private HashWorkerMain(ThreadPoolExecutor executor, int maxMemoryKiB) {
+        this.executor = executor;
+        this.maxMemoryKiB = maxMemoryKiB;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String listen = DEFAULT_LISTEN;
+        String configDir = "config";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--listen" -> listen = requireValue(args, ++i);
+                case "--config" -> configDir = requireValue(args, ++i);
+                default -> {
+                    System.err.println("Usage: HashWorkerMain [--listen host:port|unix:/path] [--config dir]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        VouchConfigManager config = VouchConfigManager.initialize(Path.of(configDir));
+        int threads = Math.max(1, config.getHashingThreads());
+        int queueCapacity = Math.max(1, config.getHashingQueueCapacity());
+
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "Vouch-Hash-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        HashWorkerMain worker = new HashWorkerMain(executor, Argon2MemoryPool.getInstance().getBudgetKiB());
+        LOGGER.info("Hash worker listening on {} (threads={}, queue={}, memory_budget={} KiB)",
+                listen, threads, queueCapacity, worker.maxMemoryKiB);
+        worker.serve(HashWorkerProtocol.parseAddress(listen));
+    }
+
+    private static String requireValue(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private void serve(SocketAddress address) throws IOException {
+        ServerSocketChannel server;
+        if (address instanceof UnixDomainSocketAddress unix) {
+            // Left behind if a previous worker was killed
+            Files.deleteIfExists(unix.getPath());
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        } else {
+            server = ServerSocketChannel.open();
+        }
+
+        try (server) {
+            server.bind(address);
+            while (true) {
+                SocketChannel client = server.accept();
+                Thread thread = new Thread(() -> handle(client), "Vouch-HashWorker-Conn-" + connectionIds.incrementAndGet());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+
+    private void handle(SocketChannel client) {
+        String peer = describe(client);
+        LOGGER.debug("Connection from {}", peer);
+        try (client) {
+            HashWorkerProtocol.readMagic(client);
+            HashWorkerProtocol.writeMagic(client);
+
+            ByteBuffer frame;
+            while ((frame = HashWorkerProtocol.readFrame(client)) != null) {
+                ComputeRequest request;
+                try {
+                    request = HashWorkerProtocol.decodeRequest(frame);
+                } finally {
+                    HashWorkerProtocol.wipe(frame);
+                }
+                dispatch(client, request);
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Connection from {} closed: {}", peer, e.getMessage());
+        }
+    }
+
+    private void dispatch(SocketChannel client, ComputeRequest request) throws IOException {
+        String invalid = validate(request);
+        if (invalid != null) {
+            Arrays.fill(request.password(), (byte) 0);
+            reply(client, request.id(), HashWorkerProtocol.STATUS_ERROR, invalid.getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+
+        try {
+            executor.execute(() -> compute(client, request));
+        } catch (RejectedExecutionException e) {
+            Arrays.fill(request.password(), (byte) 0);
+            reply(client, request.id(), HashWorkerProtocol.STATUS_BUSY, new byte[0]);
+        }
+    }
+
+    private void compute(SocketChannel client, ComputeRequest request) {
+        byte status = HashWorkerProtocol.STATUS_OK;
+        byte[] payload;
+        try {
+            payload = Argon2Engine.hash(request.password(), request.salt(), request.memoryKiB(),
+                    request.iterations(), request.parallelism(), request.hashLength());
+        } catch (RuntimeException e) {
+            LOGGER.error("Hash computation failed", e);
+            status = HashWorkerProtocol.STATUS_ERROR;
+            payload = String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8);
+        } finally {
+            Arrays.fill(request.password(), (byte) 0);
+        }
+
+        try {
+            reply(client, request.id(), status, payload);
+        } catch (IOException e) {
+            LOGGER.debug("Could not send result: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return why the request cannot be served, or null if it is acceptable
+     */
+    private String validate(ComputeRequest request) {
+        try {
+            new Argon2Params(request.memoryKiB(), request.iterations(), request.parallelism());
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if (request.memoryKiB() > maxMemoryKiB) {
+            return "memory_cost " + request.memoryKiB() + " KiB exceeds the worker budget of " + maxMemoryKiB + " KiB";
+        }
+        if (request.hashLength() < 4 || request.hashLength() > MAX_HASH_LENGTH) {
+            return "Invalid hash length " + request.hashLength();
+        }
+        if (request.salt().length < MIN_SALT_LENGTH) {
+            return "Salt shorter than " + MIN_SALT_LENGTH + " bytes";
+        }
+        return null;
+    }
+
+    private static void reply(SocketChannel client, long id, byte status, byte[] payload) throws IOException {
+        ByteBuffer frame = HashWorkerProtocol.encodeResponse(id, status, payload);
+        // Results come from several hash threads; frames must not interleave
+        synchronized (client) {
+            HashWorkerProtocol.writeFully(client, frame);
+        }
+    }
+
+    private static String describe(SocketChannel client) {
+        try {
+            SocketAddress remote = client.getRemoteAddress();
+            return remote instanceof InetSocketAddress inet ? inet.toString() : "local socket";
+        } catch (IOException e) {
+            return "unknown peer";
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.nozz.vouch.crypto.remote;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Wire format between Vouch servers and hash workers.
+ *
+ * After connecting, each side sends the 4-byte {@link #MAGIC} once. After that,
+ * all messages are frames: a 4-byte big-endian length, then the body.
+ *
+ * Request body:  id (long), op (byte), memoryKiB, iterations, parallelism,
+ *                hashLength (ints), salt (short length + bytes),
+ *                password (int length + UTF-8 bytes)
+ * Response body: id (long), status (byte), payload (int length + bytes);
+ *                the payload is the raw hash for OK and a UTF-8 message otherwise
+ *
+ * A client may send many requests without waiting (pipelining). The worker
+ * answers each one when it finishes, so responses can arrive in any order and
+ * are matched by id.
+ *
+ * Addresses are "host:port", "host" (default port) or "unix:/path/to/socket".
+ */
+final class HashWorkerProtocol {
+    static final int MAGIC = 0x56485731;  // "VHW1"
+    static final int DEFAULT_PORT = 7341;
+    static final int MAX_FRAME_LENGTH = 64 * 1024;
+
+    static final byte OP_COMPUTE = 1;
+
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_BUSY = 1;
+    static final byte STATUS_ERROR = 2;
+
+    private static final String UNIX_PREFIX = "unix:";
+
+    private HashWorkerProtocol() {
+    }
+
+    /**
+     * One Argon2id computation.
+     */
+    record ComputeRequest(long id, int memoryKiB, int iterations, int parallelism, int hashLength,
+                          byte[] salt, byte[] password) {}
+
+    /**
+     * Worker reply to a {@link ComputeRequest} with the same id.
+     */
+    record Response(long id, byte status, byte[] payload) {}
+
+    static SocketAddress parseAddress(String spec) {
+        String value = spec.trim();
+        if (value.startsWith(UNIX_PREFIX)) {
+            return UnixDomainSocketAddress.of(value.substring(UNIX_PREFIX.length()));
+        }
+
+        int colon = value.lastIndexOf(':');
+        if (colon < 0) {
+            return new InetSocketAddress(value, DEFAULT_PORT);
+        }
+        String host = value.substring(0, colon);
+        if (host.startsWith("[") && host.endsWith("]")) {
+            host = host.substring(1, host.length() - 1);  // [::1]:7341
+        }
+        return new InetSocketAddress(host, Integer.parseInt(value.substring(colon + 1)));
+    }
+
+    static ByteBuffer encodeRequest(ComputeRequest request) {
+        int length = 8 + 1 + 4 * 4 + 2 + request.salt().length + 4 + request.password().length;
+        ByteBuffer buffer = ByteBuffer.allocate(4 + length);
+        buffer.putInt(length)
+                .putLong(request.id())
+                .put(OP_COMPUTE)
+                .putInt(request.memoryKiB())
+                .putInt(request.iterations())
+                .putInt(request.parallelism())
+                .putInt(request.hashLength())
+                .putShort((short) request.salt().length)
+                .put(request.salt())
+                .putInt(request.password().length)
+                .put(request.password());
+        return buffer.flip();
+    }
+
+    /**
+     * @throws IOException if the frame is not a well-formed compute request
+     */
+    static ComputeRequest decodeRequest(ByteBuffer frame) throws IOException {
+        try {
+            long id = frame.getLong();
+            byte op = frame.get();
+            if (op != OP_COMPUTE) {
+                throw new IOException("Unknown operation " + op);
+            }
+            int memoryKiB = frame.getInt();
+            int iterations = frame.getInt();
+            int parallelism = frame.getInt();
+            int hashLength = frame.getInt();
+            byte[] salt = new byte[frame.getShort() & 0xFFFF];
+            frame.get(salt);
+            byte[] password = new byte[frame.getInt()];
+            frame.get(password);
+            return new ComputeRequest(id, memoryKiB, iterations, parallelism, hashLength, salt, password);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed compute request", e);
+        }
+    }
+
+    static ByteBuffer encodeResponse(long id, byte status, byte[] payload) {
+        int length = 8 + 1 + 4 + payload.length;
+        ByteBuffer buffer = ByteBuffer.allocate(4 + length);
+        buffer.putInt(length)
+                .putLong(id)
+                .put(status)
+                .putInt(payload.length)
+                .put(payload);
+        return buffer.flip();
+    }
+
+    /**
+     * @throws IOException if the frame is not a well-formed response
+     */
+    static Response decodeResponse(ByteBuffer frame) throws IOException {
+        try {
+            long id = frame.getLong();
+            byte status = frame.get();
+            byte[] payload = new byte[frame.getInt()];
+            frame.get(payload);
+            return new Response(id, status, payload);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed response", e);
+        }
+    }
+
+    static void writeMagic(WritableByteChannel channel) throws IOException {
+        writeFully(channel, ByteBuffer.allocate(4).putInt(MAGIC).flip());
+    }
+
+    /**
+     * @throws IOException if the peer does not speak this protocol
+     */
+    static void readMagic(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        readFully(channel, buffer);
+        int magic = buffer.flip().getInt();
+        if (magic != MAGIC) {
+            throw new IOException("Not a Vouch hash worker peer (magic " + Integer.toHexString(magic) + ")");
+        }
+    }
+
+    /**
+     * Read one frame body.
+     *
+     * @return the body, or null if the peer closed the connection between frames
+     */
+    static ByteBuffer readFrame(ReadableByteChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4);
+        while (header.hasRemaining()) {
+            if (channel.read(header) < 0) {
+                if (header.position() == 0) {
+                    return null;
+                }
+                throw new EOFException("Connection closed inside a frame header");
+            }
+        }
+
+        int length = header.flip().getInt();
+        if (length <= 0 || length > MAX_FRAME_LENGTH) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        readFully(channel, body);
+        return body.flip();
+    }
+
+    static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Overwrite a buffer that held a password.
+     */
+    static void wipe(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            Arrays.fill(buffer.array(), (byte) 0);
+        }
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed");
+            }
+        }
+    }
+}
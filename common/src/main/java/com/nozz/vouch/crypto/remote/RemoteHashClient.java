@@ -0,0 +1,215 @@
+package com.nozz.vouch.crypto.remote;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import com.nozz.vouch.crypto.Argon2Params;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends Argon2 computations to remote hash workers ({@link HashWorkerMain}).
+ *
+ * Each job goes to the reachable worker with the fewest requests in flight.
+ * When no worker can take it (all down, busy or too slow) the caller gets
+ * null and hashes locally, so logins keep working without the workers.
+ *
+ * Configuration values from vouch.toml:
+ * - crypto.remote.enabled: Use remote workers
+ * - crypto.remote.workers: Comma-separated "host:port" or "unix:/path" addresses
+ * - crypto.remote.timeout: Milliseconds to wait for a worker before hashing locally
+ * - crypto.remote.max_in_flight: Requests pipelined on one connection
+ */
+public final class RemoteHashClient {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/RemoteHash");
+
+    private static RemoteHashClient instance;
+
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicLong remoteCount = new AtomicLong();
+    private final AtomicLong fallbackCount = new AtomicLong();
+
+    private volatile List<WorkerConnection> workers = List.of();
+    private long timeoutMillis;
+
+    private RemoteHashClient() {
+    }
+
+    public static synchronized RemoteHashClient getInstance() {
+        if (instance == null) {
+            instance = new RemoteHashClient();
+        }
+        return instance;
+    }
+
+    /**
+     * Read the worker list from config. Connections are opened on first use.
+     */
+    public synchronized void start() {
+        if (!workers.isEmpty()) {
+            return;
+        }
+
+        VouchConfigManager config = VouchConfigManager.getInstance();
+        if (!config.isRemoteHashingEnabled()) {
+            return;
+        }
+        this.timeoutMillis = Math.max(1, config.getRemoteHashingTimeout());
+        int maxInFlight = Math.max(1, config.getRemoteHashingMaxInFlight());
+
+        List<WorkerConnection> connections = new ArrayList<>();
+        for (String spec : config.getRemoteHashingWorkers().split(",")) {
+            if (spec.isBlank()) {
+                continue;
+            }
+            try {
+                connections.add(new WorkerConnection(spec.trim(), maxInFlight));
+            } catch (IllegalArgumentException e) {
+                LOGGER.error("Invalid hash worker address '{}': {}", spec.trim(), e.getMessage());
+            }
+        }
+
+        if (connections.isEmpty()) {
+            LOGGER.warn("Remote hashing is enabled but no valid workers are configured");
+            return;
+        }
+        this.workers = List.copyOf(connections);
+        LOGGER.info("Remote hashing enabled with {} worker(s), timeout {}ms", connections.size(), timeoutMillis);
+    }
+
+    public synchronized void shutdown() {
+        List<WorkerConnection> current = workers;
+        workers = List.of();
+        current.forEach(WorkerConnection::close);
+    }
+
+    public boolean isEnabled() {
+        return !workers.isEmpty();
+    }
+
+    /**
+     * Compute an Argon2id hash on a worker, blocking the calling hash thread.
+     *
+     * @param password UTF-8 password bytes; the caller keeps ownership and wipes them
+     * @return the raw hash, or null if the caller should compute it locally
+     */
+    public byte[] compute(byte[] password, byte[] salt, Argon2Params params, int hashLength) {
+        List<WorkerConnection> current = workers;
+        if (current.isEmpty()) {
+            return null;
+        }
+
+        boolean[] tried = new boolean[current.size()];
+        for (int attempt = 0; attempt < current.size(); attempt++) {
+            int index = pickWorker(current, tried);
+            if (index < 0) {
+                break;
+            }
+            tried[index] = true;
+            WorkerConnection worker = current.get(index);
+
+            CompletableFuture<byte[]> future;
+            try {
+                future = worker.submit(password, salt, params.memoryKiB(), params.iterations(),
+                        params.parallelism(), hashLength);
+            } catch (IOException e) {
+                continue;  // Logged by the connection; try the next worker
+            }
+
+            try {
+                byte[] hash = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+                if (hash.length != hashLength) {
+                    LOGGER.warn("Hash worker {} returned {} bytes instead of {}, hashing locally",
+                            worker.getSpec(), hash.length, hashLength);
+                    break;
+                }
+                remoteCount.incrementAndGet();
+                return hash;
+            } catch (TimeoutException e) {
+                // The time is already spent, so go straight to local hashing
+                worker.abandon(future);
+                LOGGER.warn("Hash worker {} did not answer within {}ms, hashing locally", worker.getSpec(), timeoutMillis);
+                break;
+            } catch (InterruptedException e) {
+                worker.abandon(future);
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RejectedExecutionException || cause instanceof IOException) {
+                    LOGGER.debug("Hash worker {} unavailable: {}", worker.getSpec(), cause.getMessage());
+                    continue;
+                }
+                LOGGER.warn("{}, hashing locally", cause.getMessage());
+                break;
+            }
+        }
+
+        fallbackCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Least-loaded available worker not tried yet, rotating the start so ties spread out.
+     */
+    private int pickWorker(List<WorkerConnection> current, boolean[] tried) {
+        int size = current.size();
+        int start = Math.floorMod(nextWorker.getAndIncrement(), size);
+        int best = -1;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int index = (start + i) % size;
+            WorkerConnection worker = current.get(index);
+            if (tried[index] || !worker.isAvailable()) {
+                continue;
+            }
+            int load = worker.getInFlight();
+            if (load < bestLoad) {
+                best = index;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    // ==================== Statistics ====================
+
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    public int getConnectedCount() {
+        int connected = 0;
+        for (WorkerConnection worker : workers) {
+            if (worker.isConnected()) {
+                connected++;
+            }
+        }
+        return connected;
+    }
+
+    public int getInFlightCount() {
+        int inFlight = 0;
+        for (WorkerConnection worker : workers) {
+            inFlight += worker.getInFlight();
+        }
+        return inFlight;
+    }
+
+    public long getRemoteCount() {
+        return remoteCount.get();
+    }
+
+    public long getFallbackCount() {
+        return fallbackCount.get();
+    }
+}
@@ -0,0 +1,229 @@
+package com.nozz.vouch.crypto.remote;
+
+import com.nozz.vouch.crypto.remote.HashWorkerProtocol.ComputeRequest;
+import com.nozz.vouch.crypto.remote.HashWorkerProtocol.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One pipelined connection to a hash worker.
+ *
+ * Requests are written as soon as they are submitted, and a reader thread
+ * completes the matching future when the worker answers. The connection is
+ * opened lazily; after a failure it is left alone for {@link #RETRY_DELAY_MS}
+ * before the next attempt.
+ */
+final class WorkerConnection {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/RemoteHash");
+
+    private static final int CONNECT_TIMEOUT_MS = 1000;
+    private static final long RETRY_DELAY_MS = 5000;
+
+    private final String spec;
+    private final SocketAddress address;
+    private final int maxInFlight;
+    private final AtomicLong ids = new AtomicLong();
+
+    private volatile Link link;  // written under this
+    private volatile long retryAt;
+    private volatile boolean closed;
+
+    /**
+     * An open channel and the requests waiting for an answer on it
+     */
+    private record Link(SocketChannel channel, Map<Long, CompletableFuture<byte[]>> pending) {}
+
+    WorkerConnection(String spec, int maxInFlight) {
+        this.spec = spec;
+        this.address = HashWorkerProtocol.parseAddress(spec);
+        this.maxInFlight = maxInFlight;
+    }
+
+    String getSpec() {
+        return spec;
+    }
+
+    boolean isConnected() {
+        return link != null;
+    }
+
+    /**
+     * Connected, or due for another connection attempt
+     */
+    boolean isAvailable() {
+        return !closed && (link != null || System.currentTimeMillis() >= retryAt);
+    }
+
+    int getInFlight() {
+        Link current = link;
+        return current != null ? current.pending().size() : 0;
+    }
+
+    /**
+     * Send a computation to the worker.
+     *
+     * The future fails with {@link RejectedExecutionException} if the worker
+     * or this connection is saturated, and with {@link IOException} if the
+     * connection is lost before the answer arrives.
+     *
+     * @throws IOException if the worker cannot be reached
+     */
+    CompletableFuture<byte[]> submit(byte[] password, byte[] salt, int memoryKiB, int iterations,
+                                     int parallelism, int hashLength) throws IOException {
+        Link current = ensureConnected();
+        if (current.pending().size() >= maxInFlight) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many requests in flight"));
+        }
+
+        long id = ids.incrementAndGet();
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        current.pending().put(id, future);
+
+        ByteBuffer frame = HashWorkerProtocol.encodeRequest(
+                new ComputeRequest(id, memoryKiB, iterations, parallelism, hashLength, salt, password));
+        try {
+            synchronized (current) {
+                HashWorkerProtocol.writeFully(current.channel(), frame);
+            }
+        } catch (IOException e) {
+            current.pending().remove(id);
+            disconnect(current, e);
+            throw e;
+        } finally {
+            HashWorkerProtocol.wipe(frame);
+        }
+        return future;
+    }
+
+    /**
+     * Forget a request whose caller stopped waiting for it.
+     */
+    void abandon(CompletableFuture<byte[]> future) {
+        Link current = link;
+        if (current != null) {
+            current.pending().values().remove(future);
+        }
+    }
+
+    void close() {
+        Link current;
+        synchronized (this) {
+            closed = true;
+            current = link;
+        }
+        if (current != null) {
+            disconnect(current, new IOException("Hash worker client shut down"));
+        }
+    }
+
+    private synchronized Link ensureConnected() throws IOException {
+        Link current = link;
+        if (current != null) {
+            return current;
+        }
+        if (closed) {
+            throw new IOException("Connection closed");
+        }
+        if (System.currentTimeMillis() < retryAt) {
+            throw new IOException("Waiting to reconnect to " + spec);
+        }
+
+        SocketChannel ch = null;
+        try {
+            if (address instanceof InetSocketAddress) {
+                ch = SocketChannel.open();
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                ch.socket().connect(address, CONNECT_TIMEOUT_MS);
+            } else {
+                ch = SocketChannel.open(StandardProtocolFamily.UNIX);
+                ch.connect(address);
+            }
+            // The worker's magic is checked by the reader thread, so a silent peer cannot block callers
+            HashWorkerProtocol.writeMagic(ch);
+        } catch (IOException e) {
+            closeQuietly(ch);
+            retryAt = System.currentTimeMillis() + RETRY_DELAY_MS;
+            LOGGER.warn("Cannot connect to hash worker {}: {}", spec, e.getMessage());
+            throw e;
+        }
+
+        current = new Link(ch, new ConcurrentHashMap<>());
+        link = current;
+        Link reading = current;
+        Thread reader = new Thread(() -> readLoop(reading), "Vouch-RemoteHash-" + spec);
+        reader.setDaemon(true);
+        reader.start();
+        LOGGER.info("Connected to hash worker {}", spec);
+        return current;
+    }
+
+    private void readLoop(Link current) {
+        SocketChannel ch = current.channel();
+        IOException cause = null;
+        try {
+            HashWorkerProtocol.readMagic(ch);
+            ByteBuffer frame;
+            while ((frame = HashWorkerProtocol.readFrame(ch)) != null) {
+                Response response = HashWorkerProtocol.decodeResponse(frame);
+                CompletableFuture<byte[]> future = current.pending().remove(response.id());
+                if (future == null) {
+                    continue;  // Caller timed out and computed locally
+                }
+                switch (response.status()) {
+                    case HashWorkerProtocol.STATUS_OK -> future.complete(response.payload());
+                    case HashWorkerProtocol.STATUS_BUSY -> future.completeExceptionally(
+                            new RejectedExecutionException("Hash worker " + spec + " is busy"));
+                    default -> future.completeExceptionally(new IllegalStateException(
+                            "Hash worker " + spec + " failed: " + new String(response.payload(), StandardCharsets.UTF_8)));
+                }
+            }
+            cause = new IOException("Hash worker " + spec + " closed the connection");
+        } catch (IOException e) {
+            cause = e;
+        } finally {
+            disconnect(current, cause != null ? cause : new IOException("Connection lost"));
+        }
+    }
+
+    private void disconnect(Link current, IOException cause) {
+        synchronized (this) {
+            if (link != current) {
+                return;
+            }
+            link = null;
+            retryAt = System.currentTimeMillis() + RETRY_DELAY_MS;
+        }
+
+        closeQuietly(current.channel());
+        if (!closed) {
+            LOGGER.warn("Lost connection to hash worker {}: {}", spec, cause.getMessage());
+        }
+        // Nothing new is added once the link is detached
+        current.pending().values().forEach(future -> future.completeExceptionally(cause));
+        current.pending().clear();
+    }
+
+    private static void closeQuietly(SocketChannel ch) {
+        if (ch == null) {
+            return;
+        }
+        try {
+            ch.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.nozz.vouch.db;
+
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of a player's stored credentials.
+ *
+ * Loaded in a single query by {@link DatabaseManager#getAuthProfile} so the
+ * login and 2FA flows need one round trip instead of one per column.
+ *
+ * @param registered   Whether a row exists for the player
+ * @param passwordHash Stored Argon2 hash (empty in 2FA-only registrations)
+ * @param totpEnabled  Whether 2FA is enabled
+ * @param totpSecret   Stored TOTP secret, may be null
+ * @param lastIp       IP of the last successful login, may be null
+ */
+public record AuthProfile(boolean registered, String passwordHash, boolean totpEnabled,
+                          String totpSecret, String lastIp) {
+
+    public static final AuthProfile UNREGISTERED = new AuthProfile(false, null, false, null, null);
+
+    public AuthProfile withLastIp(String ip) {
+        return new AuthProfile(registered, passwordHash, totpEnabled, totpSecret, ip);
+    }
+
+    /**
+     * Check if the player has a usable password hash
+     */
+    public boolean hasPassword() {
+        return passwordHash != null && !passwordHash.isEmpty();
+    }
+
+    /**
+     * Get the TOTP secret if 2FA is enabled
+     */
+    public Optional<String> activeTotpSecret() {
+        return totpEnabled ? Optional.ofNullable(totpSecret) : Optional.empty();
+    }
+}
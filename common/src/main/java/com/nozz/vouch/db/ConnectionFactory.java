@@ -7,8 +7,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
  * Connection factory for database access.
@@ -27,6 +30,8 @@ public final class ConnectionFactory {
     private static ConnectionFactory instance;
     private HikariDataSource dataSource;
     private DatabaseType databaseType;
+    private SqlDialect dialect;
+    private int queryTimeout;  // seconds
 
     public enum DatabaseType {
         H2("org.h2.Driver"),
@@ -157,6 +162,7 @@ public final class ConnectionFactory {
         }
 
         this.databaseType = type;
+        this.dialect = SqlDialect.of(type);
 
         // Load the driver class explicitly to handle shadow plugin relocation
         String driverClass = type.getResolvedDriverClass();
@@ -211,6 +217,9 @@ public final class ConnectionFactory {
         config.addDataSourceProperty("prepStmtCacheSize", "250");
         config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
 
+        // Applied per connection by getQueryConnection(), not pool-wide, so migrations are never cut short
+        this.queryTimeout = Math.max(1, vouchConfig.getDatabaseQueryTimeout());
+
         try {
             this.dataSource = new HikariDataSource(config);
             LOGGER.info("Database connection pool initialized (type={}, url={})",
@@ -231,6 +240,43 @@ public final class ConnectionFactory {
         return dataSource.getConnection();
     }
 
+    /**
+     * Get a connection for an operation on the {@link DatabaseExecutor}.
+     * 
+     * Every statement created on it gets database.executor.query_timeout as its
+     * query timeout, and on MySQL/PostgreSQL the same limit is set as the network
+     * timeout, so a hung query gives its worker thread and connection back once
+     * the executor has given up on it. HikariCP restores the network timeout when
+     * the connection is returned, so plain {@link #getConnection()} connections
+     * (schema migration, session sweeping) are never cut short.
+     */
+    public Connection getQueryConnection() throws SQLException {
+        Connection conn = getConnection();
+        int timeout = queryTimeout;
+        try {
+            if (databaseType == DatabaseType.MYSQL || databaseType == DatabaseType.POSTGRESQL) {
+                conn.setNetworkTimeout(Runnable::run, timeout * 1000);
+            }
+        } catch (SQLException | RuntimeException e) {
+            conn.close();
+            throw e;
+        }
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result;
+                    try {
+                        result = method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (result instanceof Statement statement) {
+                        statement.setQueryTimeout(timeout);
+                    }
+                    return result;
+                });
+    }
+
     /**
      * Get the underlying DataSource (for advanced usage)
      */
@@ -242,6 +288,13 @@ public final class ConnectionFactory {
         return databaseType;
     }
 
+    /**
+     * SQL dialect for the configured database type
+     */
+    public SqlDialect getDialect() {
+        return dialect;
+    }
+
     public boolean isInitialized() {
         return dataSource != null && !dataSource.isClosed();
     }
@@ -0,0 +1,109 @@
+package com.nozz.vouch.db;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.nozz.vouch.config.VouchConfigManager;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache of {@link AuthProfile} rows.
+ * 
+ * Credentials only change through DatabaseManager's write methods, which
+ * invalidate the entry, so returning players log in without a database read.
+ * Unregistered lookups are not cached. On setups where several servers share
+ * one database, database.cache.ttl bounds how long another server's change
+ * can go unnoticed.
+ * 
+ * Configuration values from vouch.toml:
+ * - database.cache.enabled: Enable the cache
+ * - database.cache.max_size: Maximum cached players
+ * - database.cache.ttl: Seconds before an entry is reloaded
+ */
+public final class CredentialCache {
+    private static CredentialCache instance;
+
+    private final Cache<UUID, AuthProfile> profiles;
+    private final boolean enabled;
+
+    // Bumped on every invalidation so a load that raced a write is not cached
+    private final AtomicLong epoch = new AtomicLong();
+
+    private CredentialCache() {
+        VouchConfigManager config = VouchConfigManager.getInstance();
+        this.enabled = config.isDatabaseCacheEnabled();
+        this.profiles = CacheBuilder.newBuilder()
+                .maximumSize(enabled ? Math.max(1, config.getDatabaseCacheMaxSize()) : 0)
+                .expireAfterWrite(Math.max(1, config.getDatabaseCacheTtl()), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public static synchronized CredentialCache getInstance() {
+        if (instance == null) {
+            instance = new CredentialCache();
+        }
+        return instance;
+    }
+
+    public AuthProfile get(UUID uuid) {
+        return enabled ? profiles.getIfPresent(uuid) : null;
+    }
+
+    /**
+     * Current invalidation epoch, read before starting a load
+     */
+    long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Store a loaded profile unless an invalidation happened since {@code loadEpoch}
+     */
+    void put(UUID uuid, AuthProfile profile, long loadEpoch) {
+        if (!enabled || !profile.registered()) {
+            return;
+        }
+        synchronized (epoch) {
+            if (epoch.get() == loadEpoch) {
+                profiles.put(uuid, profile);
+            }
+        }
+    }
+
+    /**
+     * Update last_ip in place after a login instead of dropping the entry
+     */
+    void updateLastIp(UUID uuid, String ip) {
+        profiles.asMap().computeIfPresent(uuid, (key, profile) -> profile.withLastIp(ip));
+    }
+
+    public void invalidate(UUID uuid) {
+        synchronized (epoch) {
+            epoch.incrementAndGet();
+            profiles.invalidate(uuid);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (epoch) {
+            epoch.incrementAndGet();
+            profiles.invalidateAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long size() {
+        return profiles.size();
+    }
+
+    public CacheStats stats() {
+        return profiles.stats();
+    }
+}
@@ -0,0 +1,254 @@
+package com.nozz.vouch.db;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated executor for blocking database work.
+ *
+ * Keeps JDBC calls off ForkJoinPool.commonPool() so a slow database cannot
+ * starve unrelated work. The executor is bounded (threads + queue capacity),
+ * and every operation carries a timeout so a hung query fails its future
+ * instead of leaving the caller waiting forever. Operations use
+ * {@link ConnectionFactory#getQueryConnection()}, which applies the same
+ * timeout to their statements, so a hung query also gives its worker thread
+ * and connection back.
+ *
+ * Configuration values from vouch.toml:
+ * - database.executor.threads: Worker threads (0 = pool.max_size)
+ * - database.executor.queue_capacity: Pending operations before rejecting
+ * - database.executor.virtual_threads: Use virtual threads
+ * - database.executor.query_timeout: Per-operation timeout in seconds
+ */
+public final class DatabaseExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/DatabaseExecutor");
+
+    private static DatabaseExecutor instance;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile ExecutorService executor;
+    private volatile Semaphore slots;
+    private Semaphore virtualPermits;
+    private int threads;
+    private int maxInFlight;
+    private long timeoutMillis;
+
+    private DatabaseExecutor() {
+    }
+
+    public static DatabaseExecutor getInstance() {
+        if (instance == null) {
+            instance = new DatabaseExecutor();
+        }
+        return instance;
+    }
+
+    /**
+     * Start the executor using the current configuration.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        VouchConfigManager config = VouchConfigManager.getInstance();
+        this.threads = Math.max(1, config.getDatabaseExecutorThreads());
+        this.maxInFlight = threads + Math.max(0, config.getDatabaseExecutorQueueCapacity());
+        this.slots = new Semaphore(maxInFlight);
+        this.timeoutMillis = Math.max(1, config.getDatabaseQueryTimeout()) * 1000L;
+
+        if (config.useDatabaseVirtualThreads()) {
+            // Virtual threads are cheap, so concurrency is capped with a semaphore instead of a pool.
+            // Note: drivers that block inside synchronized blocks will pin their carrier thread.
+            this.virtualPermits = new Semaphore(threads);
+            this.executor = Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("Vouch-DB-", 0).factory());
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "Vouch-DB-" + counter.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            this.virtualPermits = null;
+            this.executor = pool;
+        }
+
+        LOGGER.info("Database executor started (threads={}, queue={}, virtual={}, timeout={}s)",
+                threads, maxInFlight - threads, config.useDatabaseVirtualThreads(), timeoutMillis / 1000);
+    }
+
+    /**
+     * Run a database operation asynchronously.
+     *
+     * The returned future fails with {@link RejectedExecutionException} when the
+     * queue is full and with {@link TimeoutException} when the operation exceeds
+     * the configured timeout.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        ExecutorService exec = executor;
+        Semaphore inFlight = slots;
+        if (exec == null) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Database executor is not running"));
+        }
+
+        // Held from submission until the operation finishes or is skipped
+        if (!inFlight.tryAcquire()) {
+            rejected.incrementAndGet();
+            LOGGER.warn("Database queue full ({} pending), rejecting operation", maxInFlight);
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Database queue is full"));
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        queued.incrementAndGet();
+
+        try {
+            exec.execute(() -> {
+                try {
+                    execute(task, future);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            inFlight.release();
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        future.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((result, error) -> {
+            if (error instanceof TimeoutException) {
+                timedOut.incrementAndGet();
+                LOGGER.warn("Database operation timed out after {}ms", timeoutMillis);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Run a database operation with no result asynchronously.
+     */
+    public CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private <T> void execute(Supplier<T> task, CompletableFuture<T> future) {
+        Semaphore permits = virtualPermits;
+        if (permits != null) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                queued.decrementAndGet();
+                future.completeExceptionally(e);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        queued.decrementAndGet();
+
+        try {
+            // Skip work whose caller already gave up (timed out or cancelled while queued)
+            if (future.isDone()) {
+                return;
+            }
+
+            active.incrementAndGet();
+            try {
+                future.complete(task.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                active.decrementAndGet();
+                completed.incrementAndGet();
+            }
+        } finally {
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Stop accepting work and wait for running operations to finish.
+     */
+    public synchronized void shutdown(long timeout, TimeUnit unit) {
+        ExecutorService exec = executor;
+        if (exec == null) {
+            return;
+        }
+        executor = null;
+
+        exec.shutdown();
+        try {
+            if (!exec.awaitTermination(timeout, unit)) {
+                LOGGER.warn("Database executor did not terminate in time ({} still active), forcing shutdown...",
+                        active.get());
+                exec.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            exec.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        LOGGER.info("Database executor stopped");
+    }
+
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    public int getThreadCount() {
+        return threads;
+    }
+
+    /**
+     * Operations waiting for a worker thread
+     */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Operations currently executing
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
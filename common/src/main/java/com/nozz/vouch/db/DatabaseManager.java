@@ -5,9 +5,14 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Database manager for Vouch player data.
@@ -16,15 +21,29 @@ import java.util.concurrent.CompletableFuture;
  * - Player credentials (UUID, password hash)
  * - 2FA secrets
  * - Session data for persistence
+ * 
+ * All queries run on the dedicated {@link DatabaseExecutor}. Credential reads
+ * go through {@link CredentialCache}; every write that changes a player's
+ * credentials invalidates their entry. Session lookups are answered from
+ * {@link SessionIndex} once it has been loaded. last_login and session
+ * writes are batched by {@link WriteBehindQueue} when it is running.
  */
 public final class DatabaseManager {
     private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/DatabaseManager");
 
     private static DatabaseManager instance;
     private final ConnectionFactory connectionFactory;
+    private final DatabaseExecutor executor;
+    private final CredentialCache credentialCache;
+    private final SessionIndex sessionIndex;
+    private final WriteBehindQueue writeBehind;
 
     private DatabaseManager() {
         this.connectionFactory = ConnectionFactory.getInstance();
+        this.executor = DatabaseExecutor.getInstance();
+        this.credentialCache = CredentialCache.getInstance();
+        this.sessionIndex = SessionIndex.getInstance();
+        this.writeBehind = WriteBehindQueue.getInstance();
     }
 
     public static DatabaseManager getInstance() {
@@ -35,95 +54,154 @@ public final class DatabaseManager {
     }
 
     /**
-     * Initialize database schema
+     * Initialize database schema, applying any pending migrations
      */
     public void initializeSchema() throws SQLException {
         LOGGER.info("Initializing database schema...");
+        new SchemaMigrator(connectionFactory).migrate();
+        LOGGER.info("Database schema initialized successfully");
+    }
+
+    private SqlDialect dialect() {
+        return connectionFactory.getDialect();
+    }
+
+    /**
+     * Load all non-expired sessions into the in-memory {@link SessionIndex}.
+     * Called once at startup, after the schema is initialized.
+     */
+    public void loadSessionIndex() throws SQLException {
+        Map<UUID, List<SessionIndex.Entry>> rows = new HashMap<>();
 
-        ConnectionFactory.DatabaseType dbType = connectionFactory.getDatabaseType();
-        
         try (Connection conn = connectionFactory.getConnection();
-             Statement stmt = conn.createStatement()) {
-
-            // Players table - compatible with all databases
-            stmt.execute("""
-                    CREATE TABLE IF NOT EXISTS vouch_players (
-                        uuid VARCHAR(36) PRIMARY KEY,
-                        username VARCHAR(16) NOT NULL,
-                        password_hash VARCHAR(255) NOT NULL,
-                        totp_secret VARCHAR(64),
-                        totp_enabled BOOLEAN DEFAULT FALSE,
-                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                        last_login TIMESTAMP,
-                        last_ip VARCHAR(45)
-                    )
-                    """);
-
-            // Sessions table - use database-specific syntax for auto-increment
-            String sessionsTableSql = switch (dbType) {
-                case POSTGRESQL -> """
-                    CREATE TABLE IF NOT EXISTS vouch_sessions (
-                        id SERIAL PRIMARY KEY,
-                        uuid VARCHAR(36) NOT NULL,
-                        ip_address VARCHAR(45) NOT NULL,
-                        session_token VARCHAR(64) NOT NULL,
-                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                        expires_at TIMESTAMP NOT NULL,
-                        FOREIGN KEY (uuid) REFERENCES vouch_players(uuid) ON DELETE CASCADE
-                    )
-                    """;
-                case SQLITE -> """
-                    CREATE TABLE IF NOT EXISTS vouch_sessions (
-                        id INTEGER PRIMARY KEY AUTOINCREMENT,
-                        uuid VARCHAR(36) NOT NULL,
-                        ip_address VARCHAR(45) NOT NULL,
-                        session_token VARCHAR(64) NOT NULL,
-                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                        expires_at TIMESTAMP NOT NULL,
-                        FOREIGN KEY (uuid) REFERENCES vouch_players(uuid) ON DELETE CASCADE
-                    )
-                    """;
-                default -> """
-                    CREATE TABLE IF NOT EXISTS vouch_sessions (
-                        id INTEGER PRIMARY KEY AUTO_INCREMENT,
-                        uuid VARCHAR(36) NOT NULL,
-                        ip_address VARCHAR(45) NOT NULL,
-                        session_token VARCHAR(64) NOT NULL,
-                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-                        expires_at TIMESTAMP NOT NULL,
-                        FOREIGN KEY (uuid) REFERENCES vouch_players(uuid) ON DELETE CASCADE
-                    )
-                    """;
-            };
-            stmt.execute(sessionsTableSql);
-
-            // Index for session lookups
-            stmt.execute("""
-                    CREATE INDEX IF NOT EXISTS idx_sessions_uuid_ip 
-                    ON vouch_sessions(uuid, ip_address)
-                    """);
-
-            LOGGER.info("Database schema initialized successfully");
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT uuid, ip_address, session_token, expires_at FROM vouch_sessions WHERE expires_at > ?")) {
+
+            stmt.setTimestamp(1, Timestamp.from(Instant.now()));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    UUID uuid = dialect().getUuid(rs, "uuid");
+                    rows.computeIfAbsent(uuid, key -> new ArrayList<>()).add(new SessionIndex.Entry(
+                            rs.getString("ip_address"),
+                            rs.getString("session_token"),
+                            rs.getTimestamp("expires_at").toInstant()));
+                }
+            }
         }
+
+        sessionIndex.load(rows);
     }
 
     /**
      * Check if a player is registered
      */
     public CompletableFuture<Boolean> isRegistered(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        return getAuthProfile(uuid).handle((profile, error) -> {
+            if (error != null) {
+                return false;
+            }
+            return profile.registered();
+        });
+    }
+
+    /**
+     * Count accounts whose password hash is still in the legacy
+     * base64(salt)$base64(hash) format (verified with crypto.argon2.legacy_*).
+     */
+    public CompletableFuture<Integer> countLegacyPasswordHashes() {
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
+                 PreparedStatement stmt = conn.prepareStatement(
+                         "SELECT COUNT(*) FROM vouch_players WHERE password_hash <> '' AND password_hash NOT LIKE '$%'");
+                 ResultSet rs = stmt.executeQuery()) {
+
+                return rs.next() ? rs.getInt(1) : 0;
+
+            } catch (SQLException e) {
+                LOGGER.error("Error counting legacy password hashes", e);
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Load registration, password hash and 2FA state in a single query.
+     *
+     * Served from the credential cache when possible. Unlike the single-column
+     * getters, a database failure completes the future exceptionally so callers
+     * can report an error instead of "not registered".
+     */
+    public CompletableFuture<AuthProfile> getAuthProfile(UUID uuid) {
+        AuthProfile cached = credentialCache.get(uuid);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        long loadEpoch = credentialCache.epoch();
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
-                         "SELECT 1 FROM vouch_players WHERE uuid = ?")) {
+                         "SELECT password_hash, totp_enabled, totp_secret, last_ip FROM vouch_players WHERE uuid = ?")) {
 
-                stmt.setString(1, uuid.toString());
+                dialect().setUuid(stmt, 1, uuid);
                 try (ResultSet rs = stmt.executeQuery()) {
-                    return rs.next();
+                    if (!rs.next()) {
+                        return AuthProfile.UNREGISTERED;
+                    }
+                    AuthProfile profile = new AuthProfile(
+                            true,
+                            rs.getString("password_hash"),
+                            rs.getBoolean("totp_enabled"),
+                            rs.getString("totp_secret"),
+                            rs.getString("last_ip"));
+                    credentialCache.put(uuid, profile, loadEpoch);
+                    return profile;
                 }
 
             } catch (SQLException e) {
-                LOGGER.error("Error checking player registration", e);
-                return false;
+                LOGGER.error("Error loading auth profile for player {}", uuid, e);
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Load registration, 2FA state and session validity for a joining player.
+     *
+     * Sessions are LEFT JOINed so an unregistered player yields no row and a
+     * registered player without sessions yields one row with zero counts.
+     * A database failure completes the future exceptionally.
+     */
+    public CompletableFuture<JoinSnapshot> getJoinSnapshot(UUID uuid, String ip) {
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
+                 PreparedStatement stmt = conn.prepareStatement("""
+                         SELECT p.totp_enabled,
+                                MAX(CASE WHEN s.ip_address = ? THEN 1 ELSE 0 END) AS ip_sessions,
+                                COUNT(s.uuid) AS any_sessions
+                         FROM vouch_players p
+                         LEFT JOIN vouch_sessions s ON s.uuid = p.uuid AND s.expires_at > ?
+                         WHERE p.uuid = ?
+                         GROUP BY p.uuid, p.totp_enabled
+                         """)) {
+
+                stmt.setString(1, ip);
+                stmt.setTimestamp(2, Timestamp.from(Instant.now()));
+                dialect().setUuid(stmt, 3, uuid);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return JoinSnapshot.UNREGISTERED;
+                    }
+                    return new JoinSnapshot(
+                            true,
+                            rs.getInt("ip_sessions") > 0,
+                            rs.getInt("any_sessions") > 0,
+                            rs.getBoolean("totp_enabled"));
+                }
+
+            } catch (SQLException e) {
+                LOGGER.error("Error loading join snapshot for player {}", uuid, e);
+                throw new CompletionException(e);
             }
         });
     }
@@ -132,15 +210,16 @@ public final class DatabaseManager {
      * Register a new player
      */
     public CompletableFuture<Boolean> registerPlayer(UUID uuid, String username, String passwordHash) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
                          "INSERT INTO vouch_players (uuid, username, password_hash) VALUES (?, ?, ?)")) {
 
-                stmt.setString(1, uuid.toString());
+                dialect().setUuid(stmt, 1, uuid);
                 stmt.setString(2, username);
                 stmt.setString(3, passwordHash);
                 stmt.executeUpdate();
+                credentialCache.invalidate(uuid);
 
                 LOGGER.info("Player {} registered successfully", username);
                 return true;
@@ -157,15 +236,16 @@ public final class DatabaseManager {
      * Creates the player record with the TOTP secret enabled and no password.
      */
     public CompletableFuture<Boolean> registerPlayerWith2FA(UUID uuid, String username, String totpSecret) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
                          "INSERT INTO vouch_players (uuid, username, password_hash, totp_secret, totp_enabled) VALUES (?, ?, '', ?, TRUE)")) {
 
-                stmt.setString(1, uuid.toString());
+                dialect().setUuid(stmt, 1, uuid);
                 stmt.setString(2, username);
                 stmt.setString(3, totpSecret);
                 stmt.executeUpdate();
+                credentialCache.invalidate(uuid);
 
                 LOGGER.info("Player {} registered with 2FA (2FA-only mode)", username);
                 return true;
@@ -181,22 +261,39 @@ public final class DatabaseManager {
      * Get stored password hash for a player
      */
     public CompletableFuture<Optional<String>> getPasswordHash(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        return getAuthProfile(uuid).handle((profile, error) -> {
+            if (error != null || !profile.registered()) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(profile.passwordHash());
+        });
+    }
+
+    /**
+     * Replace a player's password hash, but only if it still equals the expected value.
+     * 
+     * Used to upgrade hashes in the background; the compare-and-set keeps a
+     * concurrent unregister or re-registration from being overwritten.
+     * 
+     * @return true if the hash was replaced
+     */
+    public CompletableFuture<Boolean> updatePasswordHash(UUID uuid, String expectedHash, String newHash) {
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
-                         "SELECT password_hash FROM vouch_players WHERE uuid = ?")) {
+                         "UPDATE vouch_players SET password_hash = ? WHERE uuid = ? AND password_hash = ?")) {
 
-                stmt.setString(1, uuid.toString());
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return Optional.of(rs.getString("password_hash"));
-                    }
-                }
+                stmt.setString(1, newHash);
+                dialect().setUuid(stmt, 2, uuid);
+                stmt.setString(3, expectedHash);
+                int updated = stmt.executeUpdate();
+                credentialCache.invalidate(uuid);
+                return updated > 0;
 
             } catch (SQLException e) {
-                LOGGER.error("Error getting password hash", e);
+                LOGGER.error("Error updating password hash", e);
+                return false;
             }
-            return Optional.empty();
         });
     }
 
@@ -204,15 +301,22 @@ public final class DatabaseManager {
      * Update last login info
      */
     public CompletableFuture<Void> updateLastLogin(UUID uuid, String ip) {
-        return CompletableFuture.runAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        if (writeBehind.isRunning()) {
+            credentialCache.updateLastIp(uuid, ip);
+            writeBehind.queueLastLogin(uuid, ip);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return executor.run(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
                          "UPDATE vouch_players SET last_login = ?, last_ip = ? WHERE uuid = ?")) {
 
                 stmt.setTimestamp(1, Timestamp.from(Instant.now()));
                 stmt.setString(2, ip);
-                stmt.setString(3, uuid.toString());
+                dialect().setUuid(stmt, 3, uuid);
                 stmt.executeUpdate();
+                credentialCache.updateLastIp(uuid, ip);
 
             } catch (SQLException e) {
                 LOGGER.error("Error updating last login", e);
@@ -224,14 +328,15 @@ public final class DatabaseManager {
      * Store TOTP secret for a player
      */
     public CompletableFuture<Boolean> storeTOTPSecret(UUID uuid, String secret) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
                          "UPDATE vouch_players SET totp_secret = ?, totp_enabled = TRUE WHERE uuid = ?")) {
 
                 stmt.setString(1, secret);
-                stmt.setString(2, uuid.toString());
+                dialect().setUuid(stmt, 2, uuid);
                 int updated = stmt.executeUpdate();
+                credentialCache.invalidate(uuid);
 
                 return updated > 0;
 
@@ -246,22 +351,11 @@ public final class DatabaseManager {
      * Get TOTP secret for a player
      */
     public CompletableFuture<Optional<String>> getTOTPSecret(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(
-                         "SELECT totp_secret FROM vouch_players WHERE uuid = ? AND totp_enabled = TRUE")) {
-
-                stmt.setString(1, uuid.toString());
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return Optional.ofNullable(rs.getString("totp_secret"));
-                    }
-                }
-
-            } catch (SQLException e) {
-                LOGGER.error("Error getting TOTP secret", e);
+        return getAuthProfile(uuid).handle((profile, error) -> {
+            if (error != null) {
+                return Optional.empty();
             }
-            return Optional.empty();
+            return profile.activeTotpSecret();
         });
     }
 
@@ -269,36 +363,21 @@ public final class DatabaseManager {
      * Check if player has 2FA enabled
      */
     public CompletableFuture<Boolean> has2FAEnabled(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(
-                         "SELECT totp_enabled FROM vouch_players WHERE uuid = ?")) {
-
-                stmt.setString(1, uuid.toString());
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return rs.getBoolean("totp_enabled");
-                    }
-                }
-
-            } catch (SQLException e) {
-                LOGGER.error("Error checking 2FA status", e);
-            }
-            return false;
-        });
+        return getAuthProfile(uuid).handle((profile, error) -> error == null && profile.totpEnabled());
     }
 
     /**
      * Disable 2FA for a player (removes secret and sets flag to false)
      */
     public CompletableFuture<Boolean> disable2FA(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
                          "UPDATE vouch_players SET totp_secret = NULL, totp_enabled = FALSE WHERE uuid = ?")) {
 
-                stmt.setString(1, uuid.toString());
+                dialect().setUuid(stmt, 1, uuid);
                 int updated = stmt.executeUpdate();
+                credentialCache.invalidate(uuid);
 
                 if (updated > 0) {
                     LOGGER.info("2FA disabled for player {}", uuid);
@@ -317,13 +396,18 @@ public final class DatabaseManager {
      * Delete a player's registration (admin command)
      */
     public CompletableFuture<Boolean> unregisterPlayer(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        sessionIndex.removeAll(uuid);
+        writeBehind.cancelAll(uuid);
+
+        // Serialized with flushes so an in-flight batch cannot re-insert the deleted rows
+        return executor.supply(() -> writeBehind.runExclusive(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
                          "DELETE FROM vouch_players WHERE uuid = ?")) {
 
-                stmt.setString(1, uuid.toString());
+                dialect().setUuid(stmt, 1, uuid);
                 int deleted = stmt.executeUpdate();
+                credentialCache.invalidate(uuid);
 
                 if (deleted > 0) {
                     LOGGER.info("Player {} unregistered by admin", uuid);
@@ -335,7 +419,7 @@ public final class DatabaseManager {
                 LOGGER.error("Error unregistering player", e);
                 return false;
             }
-        });
+        }));
     }
 
     // ==================== Session Persistence (Phase 4) ====================
@@ -343,6 +427,7 @@ public final class DatabaseManager {
     /**
      * Create a new persistent session for a player.
      * Replaces any existing session for the same UUID+IP combination.
+     * With write-behind enabled the future completes once the write is queued.
      * 
      * @param uuid Player UUID
      * @param ip Player's IP address
@@ -350,25 +435,22 @@ public final class DatabaseManager {
      * @param expiresAt When the session expires
      */
     public CompletableFuture<Boolean> createSession(UUID uuid, String ip, String tokenHash, Instant expiresAt) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection()) {
-                // First, delete any existing session for this UUID+IP
-                try (PreparedStatement deleteStmt = conn.prepareStatement(
-                        "DELETE FROM vouch_sessions WHERE uuid = ? AND ip_address = ?")) {
-                    deleteStmt.setString(1, uuid.toString());
-                    deleteStmt.setString(2, ip);
-                    deleteStmt.executeUpdate();
-                }
+        if (writeBehind.isRunning()) {
+            sessionIndex.put(uuid, new SessionIndex.Entry(ip, tokenHash, expiresAt));
+            writeBehind.queueSession(uuid, ip, tokenHash, expiresAt);
+            return CompletableFuture.completedFuture(true);
+        }
 
-                // Then create the new session
-                try (PreparedStatement insertStmt = conn.prepareStatement(
-                        "INSERT INTO vouch_sessions (uuid, ip_address, session_token, expires_at) VALUES (?, ?, ?, ?)")) {
-                    insertStmt.setString(1, uuid.toString());
-                    insertStmt.setString(2, ip);
-                    insertStmt.setString(3, tokenHash);
-                    insertStmt.setTimestamp(4, Timestamp.from(expiresAt));
-                    insertStmt.executeUpdate();
-                }
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
+                 PreparedStatement stmt = conn.prepareStatement(dialect().upsertSession())) {
+
+                dialect().setUuid(stmt, 1, uuid);
+                stmt.setString(2, ip);
+                stmt.setString(3, tokenHash);
+                stmt.setTimestamp(4, Timestamp.from(expiresAt));
+                stmt.executeUpdate();
+                sessionIndex.put(uuid, new SessionIndex.Entry(ip, tokenHash, expiresAt));
 
                 LOGGER.debug("Session created for player {} from IP {}", uuid, ip);
                 return true;
@@ -388,12 +470,17 @@ public final class DatabaseManager {
      * @return true if a valid session exists, false otherwise
      */
     public CompletableFuture<Boolean> validateSession(UUID uuid, String ip) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        if (sessionIndex.isLoaded()) {
+            return CompletableFuture.completedFuture(sessionIndex.hasValidSession(uuid, ip));
+        }
+
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
-                         "SELECT 1 FROM vouch_sessions WHERE uuid = ? AND ip_address = ? AND expires_at > ?")) {
+                         dialect().exists("vouch_sessions",
+                                 "uuid = ? AND ip_address = ? AND expires_at > ?"))) {
 
-                stmt.setString(1, uuid.toString());
+                dialect().setUuid(stmt, 1, uuid);
                 stmt.setString(2, ip);
                 stmt.setTimestamp(3, Timestamp.from(Instant.now()));
 
@@ -420,12 +507,16 @@ public final class DatabaseManager {
      * @return true if a valid session exists for this UUID, false otherwise
      */
     public CompletableFuture<Boolean> hasAnyValidSession(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        if (sessionIndex.isLoaded()) {
+            return CompletableFuture.completedFuture(sessionIndex.hasAnyValidSession(uuid));
+        }
+
+        return executor.supply(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
-                         "SELECT 1 FROM vouch_sessions WHERE uuid = ? AND expires_at > ?")) {
+                         dialect().exists("vouch_sessions", "uuid = ? AND expires_at > ?"))) {
 
-                stmt.setString(1, uuid.toString());
+                dialect().setUuid(stmt, 1, uuid);
                 stmt.setTimestamp(2, Timestamp.from(Instant.now()));
 
                 try (ResultSet rs = stmt.executeQuery()) {
@@ -450,12 +541,17 @@ public final class DatabaseManager {
      * @param ip IP address of the session to delete
      */
     public CompletableFuture<Boolean> deleteSession(UUID uuid, String ip) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        // Drop from memory first so the session cannot be restored while the delete is queued
+        sessionIndex.remove(uuid, ip);
+        writeBehind.cancelSession(uuid, ip);
+
+        // Serialized with flushes so an in-flight batch cannot re-insert the deleted rows
+        return executor.supply(() -> writeBehind.runExclusive(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
                          "DELETE FROM vouch_sessions WHERE uuid = ? AND ip_address = ?")) {
 
-                stmt.setString(1, uuid.toString());
+                dialect().setUuid(stmt, 1, uuid);
                 stmt.setString(2, ip);
                 int deleted = stmt.executeUpdate();
 
@@ -469,7 +565,7 @@ public final class DatabaseManager {
                 LOGGER.error("Error deleting session for player {}", uuid, e);
                 return false;
             }
-        });
+        }));
     }
 
     /**
@@ -478,12 +574,16 @@ public final class DatabaseManager {
      * @param uuid Player UUID
      */
     public CompletableFuture<Integer> deleteAllSessions(UUID uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = connectionFactory.getConnection();
+        sessionIndex.removeAll(uuid);
+        writeBehind.cancelAll(uuid);
+
+        // Serialized with flushes so an in-flight batch cannot re-insert the deleted rows
+        return executor.supply(() -> writeBehind.runExclusive(() -> {
+            try (Connection conn = connectionFactory.getQueryConnection();
                  PreparedStatement stmt = conn.prepareStatement(
                          "DELETE FROM vouch_sessions WHERE uuid = ?")) {
 
-                stmt.setString(1, uuid.toString());
+                dialect().setUuid(stmt, 1, uuid);
                 int deleted = stmt.executeUpdate();
 
                 if (deleted > 0) {
@@ -495,32 +595,40 @@ public final class DatabaseManager {
                 LOGGER.error("Error deleting all sessions for player {}", uuid, e);
                 return 0;
             }
-        });
+        }));
     }
 
     /**
      * Cleanup expired sessions from the database.
-     * Should be called periodically to prevent table bloat.
+     * Deletes in bounded chunks through {@link SessionSweeper} so the table
+     * is never locked for long.
      * 
      * @return Number of expired sessions deleted
      */
     public CompletableFuture<Integer> cleanupExpiredSessions() {
-        return CompletableFuture.supplyAsync(() -> {
+        sessionIndex.purgeExpired(Instant.now());
+        return SessionSweeper.getInstance().sweep();
+    }
+
+    /**
+     * Delete at most {@code limit} sessions that expired before {@code cutoff},
+     * using the expires_at index.
+     * 
+     * @return Number of sessions deleted
+     */
+    public CompletableFuture<Integer> deleteExpiredSessionsChunk(Instant cutoff, int limit) {
+        return executor.supply(() -> {
+            // Plain connection: a chunk on a large table may legitimately outlast the query timeout
             try (Connection conn = connectionFactory.getConnection();
                  PreparedStatement stmt = conn.prepareStatement(
-                         "DELETE FROM vouch_sessions WHERE expires_at < ?")) {
+                         dialect().deleteLimited("vouch_sessions", "expires_at < ?", "expires_at", limit))) {
 
-                stmt.setTimestamp(1, Timestamp.from(Instant.now()));
-                int deleted = stmt.executeUpdate();
-
-                if (deleted > 0) {
-                    LOGGER.info("Cleaned up {} expired sessions", deleted);
-                }
-                return deleted;
+                stmt.setTimestamp(1, Timestamp.from(cutoff));
+                return stmt.executeUpdate();
 
             } catch (SQLException e) {
                 LOGGER.error("Error cleaning up expired sessions", e);
-                return 0;
+                throw new CompletionException(e);
             }
         });
     }
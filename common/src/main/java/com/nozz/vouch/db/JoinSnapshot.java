@@ -0,0 +1,25 @@
+package com.nozz.vouch.db;
+
+/**
+ * Registration and session state needed when a player joins.
+ *
+ * Loaded in a single query by {@link DatabaseManager#getJoinSnapshot} so the
+ * restore-or-jail decision does not wait on separate session and
+ * registration lookups.
+ *
+ * @param registered   Whether a row exists for the player
+ * @param sessionForIp Whether a non-expired session exists for the joining IP
+ * @param anySession   Whether any non-expired session exists for the player
+ * @param totpEnabled  Whether 2FA is enabled
+ */
+public record JoinSnapshot(boolean registered, boolean sessionForIp, boolean anySession, boolean totpEnabled) {
+
+    public static final JoinSnapshot UNREGISTERED = new JoinSnapshot(false, false, false, false);
+
+    /**
+     * Check for a valid session, optionally requiring it to match the joining IP
+     */
+    public boolean hasValidSession(boolean bindToIp) {
+        return bindToIp ? sessionForIp : anySession;
+    }
+}
@@ -0,0 +1,23 @@
+package com.nozz.vouch.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A single versioned schema change applied by {@link SchemaMigrator}.
+ * 
+ * Steps must be idempotent: installs that predate the migration history
+ * table replay every migration once, and a step that fails halfway on a
+ * database without transactional DDL (MySQL) is retried on the next start.
+ *
+ * @param version     Strictly increasing version number
+ * @param description Short description stored in the history table
+ * @param step        The schema change itself
+ */
+public record Migration(int version, String description, Step step) {
+
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn, SqlDialect dialect) throws SQLException;
+    }
+}
@@ -0,0 +1,254 @@
+package com.nozz.vouch.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Versioned schema migrations for Vouch's tables.
+ * 
+ * Applied versions are recorded in vouch_schema_history. On startup every
+ * migration above the recorded version runs in order, each in its own
+ * transaction where the database supports transactional DDL.
+ * 
+ * To change the schema, append a new migration to {@link #MIGRATIONS};
+ * never edit one that has shipped.
+ */
+public final class SchemaMigrator {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/Migrations");
+
+    private static final String HISTORY_TABLE = "vouch_schema_history";
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Baseline players and sessions tables", SchemaMigrator::createBaseline),
+            new Migration(2, "Unique session per UUID and IP", SchemaMigrator::uniqueSessionKey),
+            new Migration(3, "Index session expiry and player username", SchemaMigrator::lookupIndexes),
+            new Migration(4, "Compact UUID storage", SchemaMigrator::compactUuids)
+    );
+
+    private final ConnectionFactory connectionFactory;
+
+    public SchemaMigrator(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Bring the schema up to the latest version
+     */
+    public void migrate() throws SQLException {
+        SqlDialect dialect = connectionFactory.getDialect();
+
+        try (Connection conn = connectionFactory.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("""
+                        CREATE TABLE IF NOT EXISTS vouch_schema_history (
+                            version INTEGER PRIMARY KEY,
+                            description VARCHAR(200) NOT NULL,
+                            installed_at TIMESTAMP NOT NULL
+                        )
+                        """);
+            }
+
+            int current = currentVersion(conn);
+            int latest = MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+            if (current >= latest) {
+                LOGGER.debug("Schema is up to date (version {})", current);
+                return;
+            }
+
+            LOGGER.info("Migrating schema from version {} to {}", current, latest);
+            for (Migration migration : MIGRATIONS) {
+                if (migration.version() > current) {
+                    apply(conn, dialect, migration);
+                }
+            }
+        }
+    }
+
+    private int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM " + HISTORY_TABLE)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Connection conn, SqlDialect dialect, Migration migration) throws SQLException {
+        LOGGER.info("Applying migration V{}: {}", migration.version(), migration.description());
+        long start = System.nanoTime();
+
+        conn.setAutoCommit(false);
+        try {
+            migration.step().apply(conn, dialect);
+
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "INSERT INTO " + HISTORY_TABLE + " (version, description, installed_at) VALUES (?, ?, ?)")) {
+                stmt.setInt(1, migration.version());
+                stmt.setString(2, migration.description());
+                stmt.setTimestamp(3, Timestamp.from(Instant.now()));
+                stmt.executeUpdate();
+            }
+
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            LOGGER.error("Migration V{} failed; it will be retried on next start", migration.version());
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+
+        LOGGER.info("Migration V{} applied in {}ms", migration.version(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // ==================== Migrations ====================
+
+    /**
+     * V1: tables as they existed before versioning. Fresh installs get the
+     * compact UUID type directly, which V4 then detects and skips.
+     */
+    private static void createBaseline(Connection conn, SqlDialect dialect) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(playersTableSql("vouch_players", dialect));
+            stmt.execute(sessionsTableSql("vouch_sessions", "vouch_players", dialect));
+        }
+    }
+
+    /**
+     * V2: enforce one session per UUID+IP so sessions can be upserted
+     */
+    private static void uniqueSessionKey(Connection conn, SqlDialect dialect) throws SQLException {
+        if (!dialect.indexExists(conn, "ux_sessions_uuid_ip", "vouch_sessions")) {
+            try (Statement stmt = conn.createStatement()) {
+                int removed = stmt.executeUpdate("""
+                        DELETE FROM vouch_sessions WHERE id NOT IN (
+                            SELECT id FROM (SELECT MAX(id) AS id FROM vouch_sessions GROUP BY uuid, ip_address) keep
+                        )
+                        """);
+                if (removed > 0) {
+                    LOGGER.info("Removed {} duplicate session(s) before adding unique index", removed);
+                }
+            }
+            dialect.createIndexIfMissing(conn, "ux_sessions_uuid_ip", "vouch_sessions", "uuid, ip_address", true);
+        }
+        // Superseded by the unique index
+        dialect.dropIndexIfExists(conn, "idx_sessions_uuid_ip", "vouch_sessions");
+    }
+
+    /**
+     * V3: indexes for expired-session cleanup and username lookups
+     */
+    private static void lookupIndexes(Connection conn, SqlDialect dialect) throws SQLException {
+        dialect.createIndexIfMissing(conn, "idx_sessions_expires", "vouch_sessions", "expires_at", false);
+        dialect.createIndexIfMissing(conn, "idx_players_username", "vouch_players", "username", false);
+    }
+
+    /**
+     * V4: convert VARCHAR(36) UUID keys to BINARY(16) (MySQL) or native UUID
+     * (H2, PostgreSQL). The tables are rebuilt and swapped in because the
+     * foreign key prevents altering the key column in place. Expired sessions
+     * are not copied.
+     */
+    private static void compactUuids(Connection conn, SqlDialect dialect) throws SQLException {
+        if (dialect.getType() == ConnectionFactory.DatabaseType.SQLITE) {
+            return;
+        }
+
+        // Resume a rebuild that stopped after the old tables were dropped (non-transactional DDL)
+        if (!dialect.tableExists(conn, "vouch_players") && dialect.tableExists(conn, "vouch_players_new")) {
+            LOGGER.warn("Resuming interrupted UUID migration");
+            swapInRebuiltTables(conn, dialect);
+            return;
+        }
+
+        String currentType = dialect.columnType(conn, "vouch_players", "uuid");
+        if (currentType == null || !currentType.toUpperCase().contains("CHAR")) {
+            return;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS vouch_sessions_new");
+            stmt.execute("DROP TABLE IF EXISTS vouch_players_new");
+
+            stmt.execute(playersTableSql("vouch_players_new", dialect));
+            int players = stmt.executeUpdate("""
+                    INSERT INTO vouch_players_new
+                        (uuid, username, password_hash, totp_secret, totp_enabled, created_at, last_login, last_ip)
+                    SELECT %s, username, password_hash, totp_secret, totp_enabled, created_at, last_login, last_ip
+                    FROM vouch_players
+                    """.formatted(dialect.uuidFromText("uuid")));
+
+            stmt.execute(sessionsTableSql("vouch_sessions_new", "vouch_players_new", dialect));
+            int sessions;
+            try (PreparedStatement copy = conn.prepareStatement("""
+                    INSERT INTO vouch_sessions_new (uuid, ip_address, session_token, created_at, expires_at)
+                    SELECT %s, ip_address, session_token, created_at, expires_at
+                    FROM vouch_sessions WHERE expires_at > ?
+                    """.formatted(dialect.uuidFromText("uuid")))) {
+                copy.setTimestamp(1, Timestamp.from(Instant.now()));
+                sessions = copy.executeUpdate();
+            }
+            LOGGER.info("Copied {} player(s) and {} active session(s) to compact tables", players, sessions);
+
+            stmt.execute("DROP TABLE vouch_sessions");
+            stmt.execute("DROP TABLE vouch_players");
+        }
+
+        swapInRebuiltTables(conn, dialect);
+    }
+
+    private static void swapInRebuiltTables(Connection conn, SqlDialect dialect) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (dialect.tableExists(conn, "vouch_sessions_new")) {
+                stmt.execute("DROP TABLE IF EXISTS vouch_sessions");
+            }
+            stmt.execute("ALTER TABLE vouch_players_new RENAME TO vouch_players");
+            if (dialect.tableExists(conn, "vouch_sessions_new")) {
+                stmt.execute("ALTER TABLE vouch_sessions_new RENAME TO vouch_sessions");
+            } else {
+                stmt.execute(sessionsTableSql("vouch_sessions", "vouch_players", dialect));
+            }
+        }
+
+        // Indexes from V2 and V3 were dropped along with the old tables
+        dialect.createIndexIfMissing(conn, "ux_sessions_uuid_ip", "vouch_sessions", "uuid, ip_address", true);
+        dialect.createIndexIfMissing(conn, "idx_sessions_expires", "vouch_sessions", "expires_at", false);
+        dialect.createIndexIfMissing(conn, "idx_players_username", "vouch_players", "username", false);
+    }
+
+    private static String playersTableSql(String table, SqlDialect dialect) {
+        return """
+                CREATE TABLE IF NOT EXISTS %s (
+                    uuid %s PRIMARY KEY,
+                    username VARCHAR(16) NOT NULL,
+                    password_hash VARCHAR(255) NOT NULL,
+                    totp_secret VARCHAR(64),
+                    totp_enabled BOOLEAN DEFAULT FALSE,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    last_login TIMESTAMP,
+                    last_ip VARCHAR(45)
+                )
+                """.formatted(table, dialect.uuidColumnType());
+    }
+
+    private static String sessionsTableSql(String table, String playersTable, SqlDialect dialect) {
+        return """
+                CREATE TABLE IF NOT EXISTS %s (
+                    %s,
+                    uuid %s NOT NULL,
+                    ip_address VARCHAR(45) NOT NULL,
+                    session_token VARCHAR(64) NOT NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    expires_at TIMESTAMP NOT NULL,
+                    FOREIGN KEY (uuid) REFERENCES %s(uuid) ON DELETE CASCADE
+                )
+                """.formatted(table, dialect.autoIncrementPrimaryKey("id"), dialect.uuidColumnType(), playersTable);
+    }
+}
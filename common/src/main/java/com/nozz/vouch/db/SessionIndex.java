@@ -0,0 +1,149 @@
+package com.nozz.vouch.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the non-expired rows in vouch_sessions.
+ * 
+ * Loaded once at server start and kept in sync by DatabaseManager's session
+ * writes, so checking for a persistent session is a map lookup instead of a
+ * query. The database stays the source of truth across restarts.
+ *
+ * Only used with session.memory_index, which is meant for a single server.
+ * The index never sees changes made by other servers sharing the database:
+ * their new sessions are missed (harmless, the player logs in), but so are
+ * their deletions (/logout, unregister), which would keep restoring a
+ * revoked session here until restart.
+ */
+public final class SessionIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/SessionIndex");
+    private static SessionIndex instance;
+
+    /**
+     * One persistent session as stored in vouch_sessions
+     */
+    public record Entry(String ip, String tokenHash, Instant expiresAt) {
+        boolean isValid(Instant now) {
+            return expiresAt.isAfter(now);
+        }
+    }
+
+    // Lists are never mutated in place; writers swap in a new list via compute()
+    private final Map<UUID, List<Entry>> sessions = new ConcurrentHashMap<>();
+    private volatile boolean loaded = false;
+
+    private SessionIndex() {
+    }
+
+    public static synchronized SessionIndex getInstance() {
+        if (instance == null) {
+            instance = new SessionIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * Replace the index contents with rows loaded from the database
+     */
+    void load(Map<UUID, List<Entry>> rows) {
+        sessions.clear();
+        rows.forEach((uuid, entries) -> sessions.put(uuid, List.copyOf(entries)));
+        loaded = true;
+        LOGGER.info("Loaded {} persistent session(s) for {} player(s)",
+                rows.values().stream().mapToInt(List::size).sum(), rows.size());
+    }
+
+    /**
+     * Whether the index was loaded and can answer lookups on its own
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean hasValidSession(UUID uuid, String ip) {
+        Instant now = Instant.now();
+        for (Entry entry : sessions.getOrDefault(uuid, List.of())) {
+            if (entry.ip().equals(ip) && entry.isValid(now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasAnyValidSession(UUID uuid) {
+        Instant now = Instant.now();
+        for (Entry entry : sessions.getOrDefault(uuid, List.of())) {
+            if (entry.isValid(now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Add a session, replacing any existing one for the same IP
+     */
+    void put(UUID uuid, Entry entry) {
+        if (!loaded) {
+            return;
+        }
+        sessions.compute(uuid, (key, current) -> {
+            List<Entry> updated = new ArrayList<>();
+            if (current != null) {
+                for (Entry existing : current) {
+                    if (!existing.ip().equals(entry.ip())) {
+                        updated.add(existing);
+                    }
+                }
+            }
+            updated.add(entry);
+            return List.copyOf(updated);
+        });
+    }
+
+    void remove(UUID uuid, String ip) {
+        if (!loaded) {
+            return;
+        }
+        sessions.computeIfPresent(uuid, (key, current) -> {
+            List<Entry> updated = current.stream().filter(entry -> !entry.ip().equals(ip)).toList();
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    void removeAll(UUID uuid) {
+        sessions.remove(uuid);
+    }
+
+    /**
+     * Drop expired entries
+     */
+    void purgeExpired(Instant now) {
+        if (!loaded) {
+            return;
+        }
+        for (UUID uuid : sessions.keySet()) {
+            sessions.computeIfPresent(uuid, (key, current) -> {
+                List<Entry> updated = current.stream().filter(entry -> entry.isValid(now)).toList();
+                return updated.isEmpty() ? null : updated;
+            });
+        }
+    }
+
+    public int size() {
+        return sessions.values().stream().mapToInt(List::size).sum();
+    }
+
+    public void clear() {
+        sessions.clear();
+        loaded = false;
+    }
+}
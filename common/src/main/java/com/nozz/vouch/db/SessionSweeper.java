@@ -0,0 +1,135 @@
+package com.nozz.vouch.db;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Incremental cleanup of expired sessions.
+ * 
+ * A single unbounded DELETE can lock a large sessions table for seconds and
+ * stall logins. The sweeper instead deletes chunk_size rows at a time through
+ * the expires_at index, pausing chunk_delay milliseconds between chunks so
+ * session writes can interleave. A sweep stops after half the cleanup
+ * interval and leaves any remainder to the next run.
+ * 
+ * Configuration values from vouch.toml:
+ * - session.cleanup_chunk_size: Rows deleted per statement
+ * - session.cleanup_chunk_delay: Milliseconds between chunks
+ */
+public final class SessionSweeper {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/SessionSweeper");
+    private static SessionSweeper instance;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile long lastDeleted;
+    private volatile long lastDurationMillis;
+
+    private SessionSweeper() {
+    }
+
+    public static synchronized SessionSweeper getInstance() {
+        if (instance == null) {
+            instance = new SessionSweeper();
+        }
+        return instance;
+    }
+
+    /**
+     * Start a sweep unless one is already running
+     * 
+     * @return Number of sessions deleted by this sweep
+     */
+    public CompletableFuture<Integer> sweep() {
+        if (!running.compareAndSet(false, true)) {
+            LOGGER.debug("Session sweep already in progress, skipping");
+            return CompletableFuture.completedFuture(0);
+        }
+
+        VouchConfigManager config = VouchConfigManager.getInstance();
+        Sweep sweep = new Sweep(
+                Instant.now(),
+                Math.max(1, config.getSessionCleanupChunkSize()),
+                Math.max(0, config.getSessionCleanupChunkDelay()),
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(Math.max(30, config.getSessionCleanupInterval() / 2)));
+
+        sweep.nextChunk();
+        return sweep.result.whenComplete((deleted, error) -> running.set(false));
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public long getLastDeleted() {
+        return lastDeleted;
+    }
+
+    public long getLastDurationMillis() {
+        return lastDurationMillis;
+    }
+
+    /**
+     * State of one sweep; chunks run one after another on the database executor
+     */
+    private final class Sweep {
+        private final CompletableFuture<Integer> result = new CompletableFuture<>();
+        private final Instant cutoff;
+        private final int chunkSize;
+        private final Executor pause;
+        private final long deadline;
+        private final long startNanos = System.nanoTime();
+        private int deleted;
+        private int chunks;
+
+        Sweep(Instant cutoff, int chunkSize, long delayMillis, long deadline) {
+            this.cutoff = cutoff;
+            this.chunkSize = chunkSize;
+            this.pause = CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS, Runnable::run);
+            this.deadline = deadline;
+        }
+
+        void nextChunk() {
+            DatabaseManager.getInstance().deleteExpiredSessionsChunk(cutoff, chunkSize).whenComplete((count, error) -> {
+                if (error != null) {
+                    finish(false);
+                    return;
+                }
+
+                deleted += count;
+                chunks++;
+                if (count > 0) {
+                    LOGGER.debug("Session sweep: chunk {} removed {} ({} so far)", chunks, count, deleted);
+                }
+
+                if (count < chunkSize) {
+                    finish(true);
+                } else if (System.nanoTime() > deadline) {
+                    LOGGER.info("Session sweep paused after {} rows, continuing next run", deleted);
+                    finish(true);
+                } else {
+                    pause.execute(this::nextChunk);
+                }
+            });
+        }
+
+        private void finish(boolean success) {
+            long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            lastDeleted = deleted;
+            lastDurationMillis = millis;
+
+            if (deleted > 0 || !success) {
+                LOGGER.info("Session sweep {}: removed {} expired session(s) in {} chunk(s), {}ms ({} rows/s)",
+                        success ? "finished" : "aborted", deleted, chunks, millis, deleted * 1000L / millis);
+            }
+            result.complete(deleted);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.nozz.vouch.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Database-specific SQL for the statements whose syntax differs between backends.
+ * 
+ * Obtained from {@link ConnectionFactory#getDialect()}. Everything else in
+ * Vouch sticks to SQL that all four supported databases accept.
+ */
+public final class SqlDialect {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/SqlDialect");
+
+    private final ConnectionFactory.DatabaseType type;
+    private final String upsertSessionSql;
+
+    private SqlDialect(ConnectionFactory.DatabaseType type) {
+        this.type = type;
+        this.upsertSessionSql = buildUpsertSession();
+    }
+
+    public static SqlDialect of(ConnectionFactory.DatabaseType type) {
+        return new SqlDialect(type);
+    }
+
+    public ConnectionFactory.DatabaseType getType() {
+        return type;
+    }
+
+    /**
+     * Column type used for player UUIDs: BINARY(16) on MySQL, native UUID on
+     * H2 and PostgreSQL, and text on SQLite, which has no fixed-width binary
+     * type that compares efficiently.
+     */
+    public String uuidColumnType() {
+        return switch (type) {
+            case MYSQL -> "BINARY(16)";
+            case H2, POSTGRESQL -> "UUID";
+            case SQLITE -> "VARCHAR(36)";
+        };
+    }
+
+    /**
+     * SQL expression converting a VARCHAR(36) UUID column to {@link #uuidColumnType()}
+     */
+    public String uuidFromText(String column) {
+        return switch (type) {
+            case MYSQL -> "UNHEX(REPLACE(" + column + ", '-', ''))";
+            case H2, POSTGRESQL -> "CAST(" + column + " AS UUID)";
+            case SQLITE -> column;
+        };
+    }
+
+    public void setUuid(PreparedStatement stmt, int index, UUID uuid) throws SQLException {
+        switch (type) {
+            case MYSQL -> stmt.setBytes(index, toBytes(uuid));
+            case H2, POSTGRESQL -> stmt.setObject(index, uuid);
+            case SQLITE -> stmt.setString(index, uuid.toString());
+        }
+    }
+
+    public UUID getUuid(ResultSet rs, String column) throws SQLException {
+        return switch (type) {
+            case MYSQL -> fromBytes(rs.getBytes(column));
+            case H2, POSTGRESQL -> rs.getObject(column, UUID.class);
+            case SQLITE -> UUID.fromString(rs.getString(column));
+        };
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private static UUID fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Auto-increment primary key column definition
+     */
+    public String autoIncrementPrimaryKey(String column) {
+        return switch (type) {
+            case POSTGRESQL -> column + " SERIAL PRIMARY KEY";
+            case SQLITE -> column + " INTEGER PRIMARY KEY AUTOINCREMENT";
+            default -> column + " INTEGER PRIMARY KEY AUTO_INCREMENT";
+        };
+    }
+
+    /**
+     * Single-statement insert-or-replace of a session keyed by (uuid, ip_address).
+     * Parameters: uuid, ip_address, session_token, expires_at.
+     * Relies on the unique index created by {@link DatabaseManager#initializeSchema}.
+     */
+    public String upsertSession() {
+        return upsertSessionSql;
+    }
+
+    private String buildUpsertSession() {
+        return switch (type) {
+            case H2 -> """
+                    MERGE INTO vouch_sessions (uuid, ip_address, session_token, expires_at, created_at)
+                    KEY (uuid, ip_address) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)
+                    """;
+            case MYSQL -> """
+                    INSERT INTO vouch_sessions (uuid, ip_address, session_token, expires_at) VALUES (?, ?, ?, ?)
+                    ON DUPLICATE KEY UPDATE session_token = VALUES(session_token), expires_at = VALUES(expires_at),
+                    created_at = CURRENT_TIMESTAMP
+                    """;
+            case SQLITE, POSTGRESQL -> """
+                    INSERT INTO vouch_sessions (uuid, ip_address, session_token, expires_at) VALUES (?, ?, ?, ?)
+                    ON CONFLICT (uuid, ip_address) DO UPDATE SET session_token = excluded.session_token,
+                    expires_at = excluded.expires_at, created_at = CURRENT_TIMESTAMP
+                    """;
+        };
+    }
+
+    /**
+     * Existence check that stops at the first matching row.
+     * All supported databases accept LIMIT.
+     */
+    public String exists(String table, String where) {
+        return "SELECT 1 FROM " + table + " WHERE " + where + " LIMIT 1";
+    }
+
+    /**
+     * Delete at most {@code limit} rows matching {@code where}, oldest {@code orderColumn} first.
+     * MySQL and H2 support DELETE ... LIMIT directly; PostgreSQL and SQLite
+     * (unless compiled with SQLITE_ENABLE_UPDATE_DELETE_LIMIT) go through the primary key.
+     */
+    public String deleteLimited(String table, String where, String orderColumn, int limit) {
+        return switch (type) {
+            case MYSQL -> "DELETE FROM " + table + " WHERE " + where
+                    + " ORDER BY " + orderColumn + " LIMIT " + limit;
+            case H2 -> "DELETE FROM " + table + " WHERE " + where + " LIMIT " + limit;
+            case SQLITE, POSTGRESQL -> "DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table
+                    + " WHERE " + where + " ORDER BY " + orderColumn + " LIMIT " + limit + ")";
+        };
+    }
+
+    /**
+     * Create an index unless one with the same name already exists.
+     * MySQL has no CREATE INDEX IF NOT EXISTS, so existence is checked through
+     * JDBC metadata on every backend.
+     * 
+     * @return true if the index was created
+     */
+    public boolean createIndexIfMissing(Connection conn, String name, String table, String columns, boolean unique)
+            throws SQLException {
+        if (indexExists(conn, name, table)) {
+            return false;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE " + (unique ? "UNIQUE " : "") + "INDEX " + name + " ON " + table + " (" + columns + ")");
+        }
+        LOGGER.info("Created index {} on {}({})", name, table, columns);
+        return true;
+    }
+
+    /**
+     * Drop an index if it exists. MySQL requires the table name in DROP INDEX.
+     */
+    public void dropIndexIfExists(Connection conn, String name, String table) throws SQLException {
+        if (!indexExists(conn, name, table)) {
+            return;
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(type == ConnectionFactory.DatabaseType.MYSQL
+                    ? "DROP INDEX " + name + " ON " + table
+                    : "DROP INDEX " + name);
+        }
+        LOGGER.info("Dropped index {} on {}", name, table);
+    }
+
+    public boolean tableExists(Connection conn, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getTables(conn.getCatalog(), null, identifier(meta, table), new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Database type name of a column, or null if the column does not exist
+     */
+    public String columnType(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, identifier(meta, table), identifier(meta, column))) {
+            return rs.next() ? rs.getString("TYPE_NAME") : null;
+        }
+    }
+
+    private static String identifier(DatabaseMetaData meta, String name) throws SQLException {
+        return meta.storesUpperCaseIdentifiers() ? name.toUpperCase() : name;
+    }
+
+    public boolean indexExists(Connection conn, String name, String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, identifier(meta, table), false, true)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                if (indexName != null && indexName.equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,383 @@
+package com.nozz.vouch.db;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind queue for high-frequency, low-value writes.
+ * 
+ * last_login updates and session creation are coalesced per player (the
+ * latest value wins) and flushed as JDBC batches in a single transaction,
+ * either every flush_interval milliseconds or once batch_size writes are
+ * pending. Deletes that touch the same rows must go through
+ * {@link #runExclusive} so they cannot interleave with a flush in progress.
+ * 
+ * If a batch fails, its rows are retried one by one so a single bad row
+ * (e.g. a session for a player deleted by another server) cannot hold up the
+ * rest. Rows that still fail are re-queued up to {@link #MAX_ATTEMPTS} times
+ * and then dropped; constraint violations are dropped at once. Writes
+ * cancelled while a flush is in flight are never re-queued, so a logout
+ * cannot be undone by a retry.
+ * 
+ * Configuration values from vouch.toml:
+ * - database.write_behind.enabled: Queue writes instead of running them immediately
+ * - database.write_behind.flush_interval: Milliseconds between flushes
+ * - database.write_behind.batch_size: Pending writes that trigger an early flush
+ */
+public final class WriteBehindQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/WriteBehind");
+    private static WriteBehindQueue instance;
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final String UPDATE_LAST_LOGIN = "UPDATE vouch_players SET last_login = ?, last_ip = ? WHERE uuid = ?";
+
+    private record LastLogin(String ip, Instant at, int attempts) {}
+
+    private record SessionKey(UUID uuid, String ip) {}
+
+    private record SessionWrite(String tokenHash, Instant expiresAt, int attempts) {}
+
+    private final Map<UUID, LastLogin> pendingLogins = new ConcurrentHashMap<>();
+    private final Map<SessionKey, SessionWrite> pendingSessions = new ConcurrentHashMap<>();
+
+    // Cancellations since the current flush started; its failed entries for these keys are not re-queued
+    private final Set<UUID> cancelledPlayers = ConcurrentHashMap.newKeySet();
+    private final Set<SessionKey> cancelledSessions = ConcurrentHashMap.newKeySet();
+
+    // Held for the whole flush transaction and by conflicting deletes
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private volatile ScheduledExecutorService flusher;
+    private int batchSize;
+
+    private WriteBehindQueue() {
+    }
+
+    public static synchronized WriteBehindQueue getInstance() {
+        if (instance == null) {
+            instance = new WriteBehindQueue();
+        }
+        return instance;
+    }
+
+    /**
+     * Start periodic flushing if write-behind is enabled
+     */
+    public synchronized void start() {
+        VouchConfigManager config = VouchConfigManager.getInstance();
+        if (flusher != null || !config.isWriteBehindEnabled()) {
+            return;
+        }
+
+        long interval = Math.max(50, config.getWriteBehindFlushInterval());
+        this.batchSize = Math.max(1, config.getWriteBehindBatchSize());
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Vouch-DB-Flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+
+        LOGGER.info("Write-behind queue started (interval={}ms, batch={})", interval, batchSize);
+    }
+
+    public boolean isRunning() {
+        return flusher != null;
+    }
+
+    /**
+     * Queue a last_login/last_ip update, replacing any pending one for the player
+     */
+    public void queueLastLogin(UUID uuid, String ip) {
+        pendingLogins.put(uuid, new LastLogin(ip, Instant.now(), 0));
+        requestFlushIfFull();
+    }
+
+    /**
+     * Queue a session upsert, replacing any pending one for the same UUID+IP
+     */
+    public void queueSession(UUID uuid, String ip, String tokenHash, Instant expiresAt) {
+        pendingSessions.put(new SessionKey(uuid, ip), new SessionWrite(tokenHash, expiresAt, 0));
+        requestFlushIfFull();
+    }
+
+    /**
+     * Drop a pending session write
+     */
+    void cancelSession(UUID uuid, String ip) {
+        SessionKey key = new SessionKey(uuid, ip);
+        pendingSessions.remove(key);
+        if (isRunning()) {
+            cancelledSessions.add(key);
+        }
+    }
+
+    /**
+     * Drop every pending write for a player
+     */
+    void cancelAll(UUID uuid) {
+        pendingLogins.remove(uuid);
+        pendingSessions.keySet().removeIf(key -> key.uuid().equals(uuid));
+        if (isRunning()) {
+            cancelledPlayers.add(uuid);
+        }
+    }
+
+    /**
+     * Run a statement that must not interleave with a flush, such as a DELETE
+     * of rows that a pending or in-flight batch would otherwise re-insert.
+     */
+    <T> T runExclusive(Supplier<T> task) {
+        flushLock.lock();
+        try {
+            return task.get();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void requestFlushIfFull() {
+        ScheduledExecutorService exec = flusher;
+        if (exec != null && getPendingCount() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            exec.execute(this::flushQuietly);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            LOGGER.error("Write-behind flush failed", t);
+        }
+    }
+
+    /**
+     * Write all pending entries in one transaction, falling back to one row
+     * at a time if the batch fails.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushRequested.set(false);
+            cancelledPlayers.clear();
+            cancelledSessions.clear();
+            if (pendingLogins.isEmpty() && pendingSessions.isEmpty()) {
+                return;
+            }
+
+            Map<UUID, LastLogin> logins = drain(pendingLogins);
+            Map<SessionKey, SessionWrite> sessions = drain(pendingSessions);
+
+            try {
+                writeBatch(logins, sessions);
+                flushedCount.addAndGet(logins.size() + sessions.size());
+                LOGGER.debug("Flushed {} last-login and {} session write(s)", logins.size(), sessions.size());
+            } catch (Exception e) {
+                failedFlushes.incrementAndGet();
+                LOGGER.warn("Failed to flush {} pending write(s) as a batch, retrying row by row",
+                        logins.size() + sessions.size(), e);
+                writeRows(logins, sessions);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private static <K, V> Map<K, V> drain(Map<K, V> source) {
+        Map<K, V> drained = new HashMap<>();
+        for (K key : source.keySet()) {
+            V value = source.remove(key);
+            if (value != null) {
+                drained.put(key, value);
+            }
+        }
+        return drained;
+    }
+
+    private void writeBatch(Map<UUID, LastLogin> logins, Map<SessionKey, SessionWrite> sessions) throws SQLException {
+        SqlDialect dialect = ConnectionFactory.getInstance().getDialect();
+        try (Connection conn = ConnectionFactory.getInstance().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (!logins.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(UPDATE_LAST_LOGIN)) {
+                        for (Map.Entry<UUID, LastLogin> entry : logins.entrySet()) {
+                            bindLastLogin(stmt, dialect, entry.getKey(), entry.getValue());
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+
+                if (!sessions.isEmpty()) {
+                    try (PreparedStatement stmt = conn.prepareStatement(dialect.upsertSession())) {
+                        for (Map.Entry<SessionKey, SessionWrite> entry : sessions.entrySet()) {
+                            bindSession(stmt, dialect, entry.getKey(), entry.getValue());
+                            stmt.addBatch();
+                        }
+                        stmt.executeBatch();
+                    }
+                }
+
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Write each entry on its own, re-queuing or dropping the ones that fail.
+     */
+    private void writeRows(Map<UUID, LastLogin> logins, Map<SessionKey, SessionWrite> sessions) {
+        SqlDialect dialect = ConnectionFactory.getInstance().getDialect();
+        try (Connection conn = ConnectionFactory.getInstance().getConnection()) {
+            for (Map.Entry<UUID, LastLogin> entry : logins.entrySet()) {
+                try (PreparedStatement stmt = conn.prepareStatement(UPDATE_LAST_LOGIN)) {
+                    bindLastLogin(stmt, dialect, entry.getKey(), entry.getValue());
+                    stmt.executeUpdate();
+                    flushedCount.incrementAndGet();
+                } catch (Exception e) {
+                    retryLastLogin(entry.getKey(), entry.getValue(), e);
+                }
+            }
+            for (Map.Entry<SessionKey, SessionWrite> entry : sessions.entrySet()) {
+                try (PreparedStatement stmt = conn.prepareStatement(dialect.upsertSession())) {
+                    bindSession(stmt, dialect, entry.getKey(), entry.getValue());
+                    stmt.executeUpdate();
+                    flushedCount.incrementAndGet();
+                } catch (Exception e) {
+                    retrySession(entry.getKey(), entry.getValue(), e);
+                }
+            }
+        } catch (Exception e) {
+            // No connection at all: every entry counts as failed
+            logins.forEach((uuid, login) -> retryLastLogin(uuid, login, e));
+            sessions.forEach((key, session) -> retrySession(key, session, e));
+        }
+    }
+
+    private void retryLastLogin(UUID uuid, LastLogin login, Exception error) {
+        if (cancelledPlayers.contains(uuid)) {
+            return;
+        }
+        if (isPermanent(error) || login.attempts() + 1 >= MAX_ATTEMPTS) {
+            droppedCount.incrementAndGet();
+            LOGGER.error("Dropping last-login write for {} after {} attempt(s)", uuid, login.attempts() + 1, error);
+            return;
+        }
+        pendingLogins.putIfAbsent(uuid, new LastLogin(login.ip(), login.at(), login.attempts() + 1));
+    }
+
+    private void retrySession(SessionKey key, SessionWrite session, Exception error) {
+        if (cancelledSessions.contains(key) || cancelledPlayers.contains(key.uuid())) {
+            return;
+        }
+        if (isPermanent(error) || session.attempts() + 1 >= MAX_ATTEMPTS) {
+            droppedCount.incrementAndGet();
+            LOGGER.error("Dropping session write for {} after {} attempt(s)", key.uuid(), session.attempts() + 1, error);
+            return;
+        }
+        pendingSessions.putIfAbsent(key, new SessionWrite(session.tokenHash(), session.expiresAt(), session.attempts() + 1));
+    }
+
+    /**
+     * Constraint violations (SQLSTATE class 23), such as a session for a deleted player, never succeed on retry.
+     */
+    private static boolean isPermanent(Exception error) {
+        return error instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("23");
+    }
+
+    private static void bindLastLogin(PreparedStatement stmt, SqlDialect dialect, UUID uuid, LastLogin login)
+            throws SQLException {
+        stmt.setTimestamp(1, Timestamp.from(login.at()));
+        stmt.setString(2, login.ip());
+        dialect.setUuid(stmt, 3, uuid);
+    }
+
+    private static void bindSession(PreparedStatement stmt, SqlDialect dialect, SessionKey key, SessionWrite session)
+            throws SQLException {
+        dialect.setUuid(stmt, 1, key.uuid());
+        stmt.setString(2, key.ip());
+        stmt.setString(3, session.tokenHash());
+        stmt.setTimestamp(4, Timestamp.from(session.expiresAt()));
+    }
+
+    /**
+     * Stop periodic flushing and write everything still pending.
+     * Must run before the connection pool is closed.
+     */
+    public synchronized void shutdown(long timeout, TimeUnit unit) {
+        ScheduledExecutorService exec = flusher;
+        if (exec == null) {
+            return;
+        }
+        flusher = null;
+
+        // Final flush runs on the flush thread so it can be bounded by the timeout
+        Future<?> finalFlush = exec.submit(this::flushQuietly);
+        exec.shutdown();
+        try {
+            finalFlush.get(timeout, unit);
+        } catch (Exception e) {
+            LOGGER.warn("Write-behind queue did not drain in time, {} write(s) lost", getPendingCount());
+            exec.shutdownNow();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+
+        if (getPendingCount() > 0) {
+            LOGGER.warn("Write-behind queue stopped with {} unwritten write(s)", getPendingCount());
+        }
+        LOGGER.info("Write-behind queue drained");
+    }
+
+    public int getPendingCount() {
+        return pendingLogins.size() + pendingSessions.size();
+    }
+
+    public long getFlushedCount() {
+        return flushedCount.get();
+    }
+
+    public long getFailedFlushCount() {
+        return failedFlushes.get();
+    }
+
+    /**
+     * Writes given up on (constraint violation or too many failed attempts)
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+}
@@ -1,6 +1,6 @@
 package com.nozz.vouch.mixin;
 
-import com.nozz.vouch.auth.AuthManager;
+import com.nozz.vouch.auth.VouchPlayerState;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.server.network.ServerPlayerEntity;
 import org.spongepowered.asm.mixin.Mixin;
@@ -23,7 +23,7 @@ public abstract class EntityDamageMixin {
     private void vouch$onDamage(DamageSource source, float amount, CallbackInfoReturnable<Boolean> cir) {
         ServerPlayerEntity self = (ServerPlayerEntity) (Object) this;
         
-        if (!AuthManager.getInstance().isAuthenticated(self)) {
+        if (!VouchPlayerState.of(self).vouch$isAuthenticated()) {
             // Player is invulnerable while in jail
             cir.setReturnValue(false);
         }
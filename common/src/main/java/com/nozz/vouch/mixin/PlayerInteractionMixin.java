@@ -1,6 +1,6 @@
 package com.nozz.vouch.mixin;
 
-import com.nozz.vouch.auth.AuthManager;
+import com.nozz.vouch.auth.VouchPlayerState;
 import net.minecraft.item.ItemStack;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.network.ServerPlayerInteractionManager;
@@ -35,7 +35,7 @@ public abstract class PlayerInteractionMixin {
      */
     @Inject(method = "tryBreakBlock", at = @At("HEAD"), cancellable = true)
     private void vouch$onTryBreakBlock(BlockPos pos, CallbackInfoReturnable<Boolean> cir) {
-        if (!AuthManager.getInstance().isAuthenticated(player)) {
+        if (!VouchPlayerState.of(player).vouch$isAuthenticated()) {
             cir.setReturnValue(false);
         }
     }
@@ -45,7 +45,7 @@ public abstract class PlayerInteractionMixin {
      */
     @Inject(method = "interactItem", at = @At("HEAD"), cancellable = true)
     private void vouch$onInteractItem(ServerPlayerEntity player, World world, ItemStack stack, Hand hand, CallbackInfoReturnable<ActionResult> cir) {
-        if (!AuthManager.getInstance().isAuthenticated(player)) {
+        if (!VouchPlayerState.of(player).vouch$isAuthenticated()) {
             cir.setReturnValue(ActionResult.FAIL);
         }
     }
@@ -55,7 +55,7 @@ public abstract class PlayerInteractionMixin {
      */
     @Inject(method = "interactBlock", at = @At("HEAD"), cancellable = true)
     private void vouch$onInteractBlock(ServerPlayerEntity player, World world, ItemStack stack, Hand hand, net.minecraft.util.hit.BlockHitResult hitResult, CallbackInfoReturnable<ActionResult> cir) {
-        if (!AuthManager.getInstance().isAuthenticated(player)) {
+        if (!VouchPlayerState.of(player).vouch$isAuthenticated()) {
             cir.setReturnValue(ActionResult.FAIL);
         }
     }
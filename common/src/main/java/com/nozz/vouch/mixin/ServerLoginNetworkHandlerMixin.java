@@ -0,0 +1,34 @@
+package com.nozz.vouch.mixin;
+
+import com.mojang.authlib.GameProfile;
+import com.nozz.vouch.auth.AuthPrefetcher;
+import net.minecraft.network.ClientConnection;
+import net.minecraft.server.network.ServerLoginNetworkHandler;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to start the join lookup as soon as the login profile is final.
+ * 
+ * The result is consumed by the PLAYER_JOIN handler, hiding the database
+ * round trip behind the configuration phase.
+ */
+@Mixin(ServerLoginNetworkHandler.class)
+public abstract class ServerLoginNetworkHandlerMixin {
+
+    @Shadow
+    @Final
+    ClientConnection connection;
+
+    /**
+     * Prefetch auth state when the server accepts the profile
+     */
+    @Inject(method = "sendSuccessPacket", at = @At("HEAD"))
+    private void vouch$onSendSuccess(GameProfile profile, CallbackInfo ci) {
+        AuthPrefetcher.getInstance().prefetch(profile.getId(), connection.getAddress());
+    }
+}
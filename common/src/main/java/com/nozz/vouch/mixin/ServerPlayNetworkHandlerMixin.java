@@ -1,10 +1,13 @@
 package com.nozz.vouch.mixin;
 
-import com.nozz.vouch.auth.AuthManager;
+import com.nozz.vouch.auth.JailSystem;
+import com.nozz.vouch.auth.VouchPlayerState;
 import com.nozz.vouch.util.Messages;
 import net.minecraft.network.packet.c2s.play.ChatMessageC2SPacket;
+import net.minecraft.network.packet.c2s.play.PlayerMoveC2SPacket;
 import net.minecraft.server.network.ServerPlayNetworkHandler;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.Vec3d;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
@@ -15,6 +18,8 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
  * Mixin to block chat messages from unauthenticated players.
  * 
  * Only allows /login and /register commands to pass through.
+ * 
+ * Also drops movement packets from jailed players before vanilla applies them.
  */
 @Mixin(ServerPlayNetworkHandler.class)
 public abstract class ServerPlayNetworkHandlerMixin {
@@ -22,15 +27,33 @@ public abstract class ServerPlayNetworkHandlerMixin {
     @Shadow
     public ServerPlayerEntity player;
 
+    @Shadow
+    private Vec3d requestedTeleportPos;
+
     /**
      * Intercept chat messages and block if player is not authenticated
      */
     @Inject(method = "onChatMessage", at = @At("HEAD"), cancellable = true)
     private void vouch$onChatMessage(ChatMessageC2SPacket packet, CallbackInfo ci) {
-        if (!AuthManager.getInstance().isAuthenticated(player)) {
+        if (!VouchPlayerState.of(player).vouch$isAuthenticated()) {
             // Block chat messages for unauthenticated players
             player.sendMessage(Messages.chatBlocked(), false);
             ci.cancel();
         }
     }
+
+    /**
+     * Drop movement from jailed players before physics runs. Vanilla first
+     * calls this on the network thread and re-queues it on the main thread;
+     * only the main-thread call is handled.
+     */
+    @Inject(method = "onPlayerMove", at = @At("HEAD"), cancellable = true)
+    private void vouch$onPlayerMove(PlayerMoveC2SPacket packet, CallbackInfo ci) {
+        if (VouchPlayerState.of(player).vouch$isAuthenticated() || !player.server.isOnThread()) {
+            return;
+        }
+        if (JailSystem.getInstance().onMovePacket(player, packet, requestedTeleportPos != null)) {
+            ci.cancel();
+        }
+    }
 }
@@ -1,8 +1,9 @@
 package com.nozz.vouch.mixin;
 
-import com.nozz.vouch.auth.AuthManager;
+import com.nozz.vouch.auth.JailSystem;
+import com.nozz.vouch.auth.PreAuthManager;
+import com.nozz.vouch.auth.VouchPlayerState;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.util.math.Vec3d;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
@@ -10,77 +11,46 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 /**
- * Mixin to freeze player movement while in pre-auth jail.
+ * Mixin to store the player's auth flag and jail slot ({@link VouchPlayerState}).
  * 
- * Players cannot move, look around, or change position until authenticated.
- * This is a server-side only restriction.
+ * Position freezing while in pre-auth jail is done by {@link JailSystem},
+ * which only visits pending players.
  */
 @Mixin(ServerPlayerEntity.class)
-public abstract class ServerPlayerEntityMixin {
+public abstract class ServerPlayerEntityMixin implements VouchPlayerState {
 
     @Unique
-    private Vec3d vouch$jailPosition;
+    private volatile boolean vouch$authenticated;
 
     @Unique
-    private float vouch$jailYaw;
+    private int vouch$jailSlot = -1;
 
-    @Unique
-    private float vouch$jailPitch;
+    @Override
+    public boolean vouch$isAuthenticated() {
+        return vouch$authenticated;
+    }
 
-    /**
-     * Capture the player's position when they first join (before tick processing)
-     */
-    @Inject(method = "tick", at = @At("HEAD"))
-    private void vouch$onTickStart(CallbackInfo ci) {
-        ServerPlayerEntity self = (ServerPlayerEntity) (Object) this;
-        
-        if (!AuthManager.getInstance().isAuthenticated(self)) {
-            // Capture initial jail position if not set
-            if (vouch$jailPosition == null) {
-                vouch$jailPosition = self.getPos();
-                vouch$jailYaw = self.getYaw();
-                vouch$jailPitch = self.getPitch();
-            }
-        } else {
-            // Clear jail position once authenticated
-            vouch$jailPosition = null;
-        }
+    @Override
+    public void vouch$setAuthenticated(boolean authenticated) {
+        this.vouch$authenticated = authenticated;
     }
 
-    /**
-     * Reset position at the end of tick if player is not authenticated
-     */
-    @Inject(method = "tick", at = @At("TAIL"))
-    private void vouch$onTickEnd(CallbackInfo ci) {
-        ServerPlayerEntity self = (ServerPlayerEntity) (Object) this;
-        
-        if (!AuthManager.getInstance().isAuthenticated(self) && vouch$jailPosition != null) {
-            // Teleport back to jail position using requestTeleport
-            self.requestTeleport(
-                vouch$jailPosition.x,
-                vouch$jailPosition.y,
-                vouch$jailPosition.z
-            );
-            
-            // Reset head rotation
-            self.setYaw(vouch$jailYaw);
-            self.setPitch(vouch$jailPitch);
-            
-            // Cancel any velocity
-            self.setVelocity(Vec3d.ZERO);
-        }
+    @Override
+    public int vouch$getJailSlot() {
+        return vouch$jailSlot;
+    }
+
+    @Override
+    public void vouch$setJailSlot(int slot) {
+        this.vouch$jailSlot = slot;
     }
 
     /**
-     * Block player movement packets by resetting position on move
+     * Carry auth state over to the entity that replaces this one after respawn
      */
-    @Inject(method = "playerTick", at = @At("HEAD"))
-    private void vouch$onPlayerTick(CallbackInfo ci) {
-        ServerPlayerEntity self = (ServerPlayerEntity) (Object) this;
-        
-        if (!AuthManager.getInstance().isAuthenticated(self) && vouch$jailPosition != null) {
-            // Ensure player stays in jail during player-specific tick
-            self.fallDistance = 0.0f;
-        }
+    @Inject(method = "copyFrom", at = @At("TAIL"))
+    private void vouch$onCopyFrom(ServerPlayerEntity oldPlayer, boolean alive, CallbackInfo ci) {
+        this.vouch$authenticated = VouchPlayerState.of(oldPlayer).vouch$isAuthenticated();
+        PreAuthManager.getInstance().onRespawn(oldPlayer, (ServerPlayerEntity) (Object) this);
     }
 }
@@ -0,0 +1,125 @@
+package com.nozz.vouch.util;
+
+import com.nozz.vouch.config.VouchConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Queue of async callbacks waiting to run on the main server thread.
+ *
+ * Any thread may submit; the main thread drains the queue once per tick
+ * until misc.main_thread_budget is used up, and whatever is left runs on
+ * the next tick. A login storm therefore spreads over several ticks instead
+ * of flooding the server's own task queue.
+ *
+ * At least one task runs per tick, so the queue always makes progress.
+ */
+public final class MainThreadQueue {
+    private static final Logger LOGGER = LoggerFactory.getLogger("Vouch/MainThread");
+
+    private static final MainThreadQueue INSTANCE = new MainThreadQueue();
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger backlog = new AtomicInteger();
+
+    // Written by the main thread only
+    private volatile long drainedCount;
+    private volatile long drainNanos;
+    private volatile long maxTickNanos;
+    private volatile long overBudgetTicks;
+    private volatile long ticks;
+
+    private MainThreadQueue() {
+    }
+
+    public static MainThreadQueue getInstance() {
+        return INSTANCE;
+    }
+
+    public void submit(Runnable task) {
+        tasks.add(task);
+        backlog.incrementAndGet();
+    }
+
+    /**
+     * Run queued tasks until the tick budget is spent. Called once per server tick.
+     */
+    public void drain() {
+        if (backlog.get() == 0) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MICROSECONDS.toNanos(VouchConfigManager.getInstance().getMainThreadBudget());
+        long now = start;
+        int drained = 0;
+
+        Runnable task;
+        while ((drained == 0 || now - deadline < 0) && (task = tasks.poll()) != null) {
+            backlog.decrementAndGet();
+            try {
+                task.run();
+            } catch (Exception e) {
+                LOGGER.error("Main-thread task failed", e);
+            }
+            drained++;
+            now = System.nanoTime();
+        }
+
+        long elapsed = now - start;
+        drainedCount += drained;
+        drainNanos += elapsed;
+        ticks++;
+        if (elapsed > maxTickNanos) {
+            maxTickNanos = elapsed;
+        }
+        if (backlog.get() > 0) {
+            overBudgetTicks++;
+        }
+    }
+
+    /**
+     * Drop tasks that will never run (server stopping).
+     */
+    public void clear() {
+        int dropped = 0;
+        while (tasks.poll() != null) {
+            backlog.decrementAndGet();
+            dropped++;
+        }
+        if (dropped > 0) {
+            LOGGER.debug("Discarded {} main-thread tasks on shutdown", dropped);
+        }
+    }
+
+    // ==================== Statistics ====================
+
+    public int getBacklog() {
+        return backlog.get();
+    }
+
+    public long getDrainedCount() {
+        return drainedCount;
+    }
+
+    /**
+     * Average time spent draining, over ticks that had work.
+     */
+    public long getAverageTickMicros() {
+        long count = ticks;
+        return count > 0 ? TimeUnit.NANOSECONDS.toMicros(drainNanos / count) : 0;
+    }
+
+    public long getMaxTickMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(maxTickNanos);
+    }
+
+    public long getOverBudgetTicks() {
+        return overBudgetTicks;
+    }
+}
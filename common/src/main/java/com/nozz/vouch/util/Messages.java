@@ -140,6 +140,83 @@ public final class Messages {
         return prefixed("vouch.admin.lang_exported", "path", path);
     }
 
+    public static Text statsHeader() {
+        return prefixed("vouch.admin.stats.header");
+    }
+
+    public static Text statsDatabase(int active, int queued, long completed, long timedOut, long rejected) {
+        return text("vouch.admin.stats.database",
+                "active", active, "queued", queued, "completed", completed,
+                "timeouts", timedOut, "rejected", rejected);
+    }
+
+    public static Text statsWriteBehind(int pending, long flushed, long failed, long dropped) {
+        return text("vouch.admin.stats.write_behind",
+                "pending", pending, "flushed", flushed, "failed", failed, "dropped", dropped);
+    }
+
+    public static Text statsCache(long size, long hits, long misses, long evictions) {
+        return text("vouch.admin.stats.cache",
+                "size", size, "hits", hits, "misses", misses, "evictions", evictions);
+    }
+
+    public static Text statsHashing(int active, int queued, long completed, long rejected, long avgWait, long maxWait) {
+        return text("vouch.admin.stats.hashing",
+                "active", active, "queued", queued, "completed", completed,
+                "rejected", rejected, "avg_wait", avgWait, "max_wait", maxWait);
+    }
+
+    public static Text statsArgon2Memory(int inUse, int budget, long reused, long allocated, long waits) {
+        return text("vouch.admin.stats.argon2_memory",
+                "in_use", inUse, "budget", budget, "reused", reused, "allocated", allocated, "waits", waits);
+    }
+
+    public static Text statsRemoteHashing(int connected, int workers, int inFlight, long remote, long fallback) {
+        return text("vouch.admin.stats.remote_hashing",
+                "connected", connected, "workers", workers, "in_flight", inFlight,
+                "remote", remote, "fallback", fallback);
+    }
+
+    public static Text statsMainThread(int backlog, long drained, long avgMicros, long maxMicros, long overBudget) {
+        return text("vouch.admin.stats.main_thread",
+                "backlog", backlog, "drained", drained, "avg_time", avgMicros,
+                "max_time", maxMicros, "over_budget", overBudget);
+    }
+
+    public static Text calibrationStarted(int targetMillis) {
+        return prefixed("vouch.admin.calibrate.started", "target", targetMillis);
+    }
+
+    public static Text calibrationRunning() {
+        return prefixed("vouch.admin.calibrate.running");
+    }
+
+    public static Text calibrationResult(int memory, int iterations, int parallelism, long p95, int concurrency,
+                                         String throughput) {
+        return prefixed("vouch.admin.calibrate.result",
+                "memory", memory, "iterations", iterations, "parallelism", parallelism,
+                "p95", p95, "concurrency", concurrency, "throughput", throughput);
+    }
+
+    public static Text calibrationTargetMissed(int targetMillis, int memory, int iterations, long p95,
+                                               String throughput) {
+        return prefixed("vouch.admin.calibrate.target_missed",
+                "target", targetMillis, "memory", memory, "iterations", iterations,
+                "p95", p95, "throughput", throughput);
+    }
+
+    public static Text calibrationBusy() {
+        return prefixed("vouch.admin.calibrate.busy");
+    }
+
+    public static Text calibrationLegacy(int count, int memory, int iterations) {
+        return prefixed("vouch.admin.calibrate.legacy", "count", count, "memory", memory, "iterations", iterations);
+    }
+
+    public static Text calibrationFailed() {
+        return prefixed("vouch.admin.calibrate.failed");
+    }
+
     public static Text databaseError() {
         return prefixed("vouch.admin.database_error");
     }
@@ -263,5 +340,13 @@ public final class Messages {
     public static Text databaseConnectionError() {
         return prefixed("vouch.error.database");
     }
+
+    public static Text serverBusy() {
+        return prefixed("vouch.error.server_busy");
+    }
+
+    public static Text requestInProgress() {
+        return prefixed("vouch.error.in_progress");
+    }
 }
 
@@ -35,6 +35,8 @@ public final class PermissionHelper {
         public static final String ADMIN_RELOAD = "vouch.admin.reload";
         public static final String ADMIN_UNREGISTER = "vouch.admin.unregister";
         public static final String ADMIN_EXPORT_LANG = "vouch.admin.export-lang";
+        public static final String ADMIN_STATS = "vouch.admin.stats";
+        public static final String ADMIN_CALIBRATE = "vouch.admin.calibrate";
         
         // Special permissions
         public static final String BYPASS_AUTH = "vouch.bypass.auth";
@@ -94,7 +94,7 @@ public final class QRMapRenderer {
     /**
      * Generate a QR code BitMatrix from the given content
      */
-    private static BitMatrix generateQRCode(String content) {
+    static BitMatrix generateQRCode(String content) {
         try {
             QRCodeWriter writer = new QRCodeWriter();
 
@@ -114,7 +114,7 @@ public final class QRMapRenderer {
     /**
      * Convert a QR BitMatrix to Minecraft map color bytes
      */
-    private static byte[] convertToMapColors(BitMatrix qrMatrix) {
+    static byte[] convertToMapColors(BitMatrix qrMatrix) {
         byte[] colors = new byte[MAP_SIZE * MAP_SIZE];
 
         for (int i = 0; i < colors.length; i++) {
@@ -57,6 +57,8 @@ public final class VouchNeoForge {
         registerNodeOpOnly(event, PermissionHelper.Nodes.ADMIN_RELOAD);
         registerNodeOpOnly(event, PermissionHelper.Nodes.ADMIN_UNREGISTER);
         registerNodeOpOnly(event, PermissionHelper.Nodes.ADMIN_EXPORT_LANG);
+        registerNodeOpOnly(event, PermissionHelper.Nodes.ADMIN_STATS);
+        registerNodeOpOnly(event, PermissionHelper.Nodes.ADMIN_CALIBRATE);
         
         // Special permissions - default to OPs only
         registerNodeOpOnly(event, PermissionHelper.Nodes.BYPASS_AUTH);